@@ -0,0 +1,85 @@
+package ctn.ctnapi.benchmark;
+
+import ctn.ctnapi.common.data_compoent.ModComponentEnergyStorage;
+import ctn.ctnapi.common.data_compoent.ModComponentEnergyStorage.EnergyStorageData;
+import ctn.ctnapi.common.data_compoent.StagedComponentEnergyStorage;
+import net.minecraft.core.component.DataComponentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ModComponentEnergyStorage} 基准测试
+ * 使用 {@link StubComponentHolder} 代替物品堆，并与暂存视图对比
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentEnergyStorageBenchmark {
+	private static final int CAPACITY = 1_000_000;
+	private static final int TRANSFER = 100;
+	private static final DataComponentType<EnergyStorageData> ENERGY_STORAGE = DataComponentType.<EnergyStorageData>builder()
+			.persistent(EnergyStorageData.CODEC)
+			.networkSynchronized(EnergyStorageData.STREAM)
+			.build();
+
+	private StubComponentHolder holder;
+	private ModComponentEnergyStorage storage;
+
+	/**
+	 * 初始化数据组件
+	 */
+	@Setup
+	public void setup() {
+		holder = new StubComponentHolder();
+		holder.set(ENERGY_STORAGE, new EnergyStorageData(CAPACITY, CAPACITY, CAPACITY, CAPACITY / 2));
+		storage = new ModComponentEnergyStorage(holder, ENERGY_STORAGE);
+	}
+
+	/**
+	 * 接收后提取相同的能量，每次操作都写入数据组件
+	 *
+	 * @param blackhole 防止结果被优化掉
+	 */
+	@Benchmark
+	public void receiveExtract(Blackhole blackhole) {
+		blackhole.consume(storage.receiveEnergy(TRANSFER, false));
+		blackhole.consume(storage.extractEnergy(TRANSFER, false));
+	}
+
+	/**
+	 * 读取能量
+	 *
+	 * @return 能量值
+	 */
+	@Benchmark
+	public int getEnergyStored() {
+		return storage.getEnergyStored();
+	}
+
+	/**
+	 * 通过暂存视图接收后提取，最后提交一次
+	 *
+	 * @param blackhole 防止结果被优化掉
+	 */
+	@Benchmark
+	public void stagedReceiveExtract(Blackhole blackhole) {
+		StagedComponentEnergyStorage staged = storage.staged();
+		blackhole.consume(staged.receiveEnergy(TRANSFER, false));
+		blackhole.consume(staged.extractEnergy(TRANSFER, false));
+		blackhole.consume(staged.commit());
+	}
+}
@@ -0,0 +1,78 @@
+package ctn.ctnapi.benchmark;
+
+import ctn.ctnapi.adapter.ModEnergyStorage;
+import ctn.ctnapi.capability.IModEnergyStorage;
+import ctn.ctnapi.common.payloads.EnergyStorageData;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EnergyStorageData#ENERGY_STORAGE_STREAM} 编解码基准测试
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnergyStorageCodecBenchmark {
+	private IModEnergyStorage storage;
+	private ByteBuf buffer;
+	private ByteBuf encoded;
+
+	/**
+	 * 初始化缓冲区与编码好的数据
+	 */
+	@Setup
+	public void setup() {
+		storage = new ModEnergyStorage(1_000_000, 10_000, 10_000, 123_456);
+		buffer = Unpooled.buffer(32);
+		encoded = Unpooled.buffer(32);
+		EnergyStorageData.ENERGY_STORAGE_STREAM.encode(encoded, storage);
+	}
+
+	/**
+	 * 释放缓冲区
+	 */
+	@TearDown
+	public void tearDown() {
+		buffer.release();
+		encoded.release();
+	}
+
+	/**
+	 * 编码
+	 *
+	 * @return 写入的字节数
+	 */
+	@Benchmark
+	public int encode() {
+		buffer.clear();
+		EnergyStorageData.ENERGY_STORAGE_STREAM.encode(buffer, storage);
+		return buffer.writerIndex();
+	}
+
+	/**
+	 * 解码
+	 *
+	 * @return 解码的能量存储
+	 */
+	@Benchmark
+	public IModEnergyStorage decode() {
+		encoded.readerIndex(0);
+		return EnergyStorageData.ENERGY_STORAGE_STREAM.decode(encoded);
+	}
+}
@@ -0,0 +1,66 @@
+package ctn.ctnapi.benchmark;
+
+import ctn.ctnapi.adapter.ModEnergyStorage;
+import ctn.ctnapi.util.EnergyUtil;
+import net.neoforged.neoforge.energy.EnergyStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EnergyUtil#controlEnergy} 基准测试
+ * 每次调用来回传输一次，使两端的能量保持稳定
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnergyTransferBenchmark {
+	private static final int CAPACITY = 1_000_000;
+	private static final int TRANSFER = 1_000;
+
+	private ModEnergyStorage modA;
+	private ModEnergyStorage modB;
+	private EnergyStorage plainA;
+	private EnergyStorage plainB;
+
+	/**
+	 * 初始化能量存储
+	 */
+	@Setup
+	public void setup() {
+		modA = new ModEnergyStorage(CAPACITY, TRANSFER, TRANSFER, CAPACITY / 2);
+		modB = new ModEnergyStorage(CAPACITY, TRANSFER, TRANSFER, CAPACITY / 2);
+		plainA = new EnergyStorage(CAPACITY, TRANSFER, TRANSFER, CAPACITY / 2);
+		plainB = new EnergyStorage(CAPACITY, TRANSFER, TRANSFER, CAPACITY / 2);
+	}
+
+	/**
+	 * 模组能量存储之间的传输（事务路径）
+	 */
+	@Benchmark
+	public void controlEnergyModStorage() {
+		EnergyUtil.controlEnergy(modA, modB);
+		EnergyUtil.controlEnergy(modB, modA);
+	}
+
+	/**
+	 * 普通能量存储之间的传输（模拟后执行路径）
+	 */
+	@Benchmark
+	public void controlEnergyPlainStorage() {
+		EnergyUtil.controlEnergy(plainA, plainB);
+		EnergyUtil.controlEnergy(plainB, plainA);
+	}
+}
@@ -0,0 +1,80 @@
+package ctn.ctnapi.benchmark;
+
+import ctn.ctnapi.adapter.ModEnergyStorage;
+import ctn.ctnapi.capability.IEnergyStorageModify;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ModEnergyStorage} 接收与提取的基准测试，分别测量有无变化监听器的情况
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModEnergyStorageBenchmark {
+	private static final int CAPACITY = 1_000_000;
+	private static final int TRANSFER = 100;
+
+	@Param({"false", "true"})
+	public boolean listener;
+
+	private ModEnergyStorage storage;
+	private int changes;
+
+	/**
+	 * 初始化能量存储
+	 */
+	@Setup
+	public void setup() {
+		storage = new ModEnergyStorage(CAPACITY, CAPACITY, CAPACITY, CAPACITY / 2);
+		if (listener) {
+			storage.setOn(new IEnergyStorageModify() {
+				@Override
+				public void onEnergyChanged() {
+					changes++;
+				}
+
+				@Override
+				public void onEnergyLoad() {
+				}
+			});
+		}
+	}
+
+	/**
+	 * 接收后提取相同的能量
+	 *
+	 * @param blackhole 防止结果被优化掉
+	 */
+	@Benchmark
+	public void receiveExtract(Blackhole blackhole) {
+		blackhole.consume(storage.receiveEnergy(TRANSFER, false));
+		blackhole.consume(storage.extractEnergy(TRANSFER, false));
+	}
+
+	/**
+	 * 模拟接收与提取
+	 *
+	 * @param blackhole 防止结果被优化掉
+	 */
+	@Benchmark
+	public void simulate(Blackhole blackhole) {
+		blackhole.consume(storage.receiveEnergy(TRANSFER, true));
+		blackhole.consume(storage.extractEnergy(TRANSFER, true));
+	}
+}
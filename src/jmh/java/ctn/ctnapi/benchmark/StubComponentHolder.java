@@ -0,0 +1,71 @@
+package ctn.ctnapi.benchmark;
+
+import net.minecraft.core.component.DataComponentMap;
+import net.minecraft.core.component.DataComponentPatch;
+import net.minecraft.core.component.DataComponentType;
+import net.minecraft.core.component.PatchedDataComponentMap;
+import net.neoforged.neoforge.common.MutableDataComponentHolder;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 基准测试用的可变数据组件持有者
+ * 与物品堆一样以 {@link PatchedDataComponentMap} 保存组件，但不需要注册物品
+ */
+public class StubComponentHolder implements MutableDataComponentHolder {
+	private final PatchedDataComponentMap components = new PatchedDataComponentMap(DataComponentMap.EMPTY);
+
+	/**
+	 * 获取数据组件
+	 *
+	 * @return 数据组件
+	 */
+	@Override
+	public DataComponentMap getComponents() {
+		return components;
+	}
+
+	/**
+	 * 设置数据组件
+	 *
+	 * @param componentType 数据组件类型
+	 * @param value         值
+	 * @return 之前的值
+	 */
+	@Nullable
+	@Override
+	public <T> T set(DataComponentType<? super T> componentType, @Nullable T value) {
+		return components.set(componentType, value);
+	}
+
+	/**
+	 * 移除数据组件
+	 *
+	 * @param componentType 数据组件类型
+	 * @return 之前的值
+	 */
+	@Nullable
+	@Override
+	public <T> T remove(DataComponentType<? extends T> componentType) {
+		return components.remove(componentType);
+	}
+
+	/**
+	 * 应用数据组件补丁
+	 *
+	 * @param patch 数据组件补丁
+	 */
+	@Override
+	public void applyComponents(DataComponentPatch patch) {
+		components.applyPatch(patch);
+	}
+
+	/**
+	 * 应用数据组件
+	 *
+	 * @param components 数据组件
+	 */
+	@Override
+	public void applyComponents(DataComponentMap components) {
+		this.components.setAll(components);
+	}
+}
@@ -0,0 +1,402 @@
+package ctn.ctnapi.adapter;
+
+import ctn.ctnapi.capability.EnergyWakeTicket;
+import ctn.ctnapi.capability.IEnergyStorageModify;
+import ctn.ctnapi.capability.IEnergyWakeSource;
+import ctn.ctnapi.capability.IModEnergyStorage;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.util.thread.BlockableEventLoop;
+import net.neoforged.neoforge.common.util.INBTSerializable;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.Executor;
+
+/**
+ * 线程安全的模组能量存储适配器类
+ * 能量值通过 CAS 循环修改，工作线程可以直接存取能量而无需切换到服务端线程。
+ * <br>
+ * 变化监听器与休眠凭证在所有者线程中调用，同一时间最多只有一次待执行的通知。
+ * 所有者由持有者通过 {@link #setOwner(Executor)} 指定（如服务端存储使用 {@link net.minecraft.server.MinecraftServer}），
+ * 未指定时（如客户端菜单中的实例）直接在当前线程调用。
+ * <br>
+ * {@link ctn.ctnapi.capability.EnergyTransaction} 提交时通过 CAS 循环加上变化量，不会写入绝对值，
+ * 事务读取后其他线程存取的能量不会丢失。
+ */
+public class AtomicModEnergyStorage implements IModEnergyStorage, IEnergyWakeSource, INBTSerializable<Tag> {
+	private static final VarHandle ENERGY;
+	private static final VarHandle CHANGE_PENDING;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			ENERGY = lookup.findVarHandle(AtomicModEnergyStorage.class, "energy", int.class);
+			CHANGE_PENDING = lookup.findVarHandle(AtomicModEnergyStorage.class, "changePending", boolean.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	@Nullable
+	protected volatile IEnergyStorageModify onContentsChanged;
+	private volatile int energy;
+	private volatile int capacity;
+	private volatile int maxReceive;
+	private volatile int maxExtract;
+	@SuppressWarnings("unused")
+	private volatile boolean changePending;
+	private final Runnable deliverTask = this::deliverChanges;
+	@Nullable
+	private volatile Executor owner;
+	@Nullable
+	private EnergyWakeTicket.Holder wakeTickets;
+
+	/**
+	 * 构造函数，使用指定容量创建能量存储
+	 *
+	 * @param capacity 能量存储容量
+	 */
+	public AtomicModEnergyStorage(int capacity) {
+		this(capacity, capacity, capacity, 0);
+	}
+
+	/**
+	 * 构造函数，使用指定容量、最大接收量和最大提取量创建能量存储
+	 *
+	 * @param capacity   能量存储容量
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 */
+	public AtomicModEnergyStorage(int capacity, int maxReceive, int maxExtract) {
+		this(capacity, maxReceive, maxExtract, 0);
+	}
+
+	/**
+	 * 构造函数，使用指定容量、最大接收量、最大提取量和初始能量创建能量存储
+	 *
+	 * @param capacity   能量存储容量
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @param energy     初始能量值
+	 */
+	public AtomicModEnergyStorage(int capacity, int maxReceive, int maxExtract, int energy) {
+		this.capacity = capacity;
+		this.maxReceive = maxReceive;
+		this.maxExtract = maxExtract;
+		this.energy = Math.max(0, Math.min(capacity, energy));
+	}
+
+	/**
+	 * 接收能量
+	 *
+	 * @param toReceive 要接收的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际接收的能量值
+	 */
+	@Override
+	public int receiveEnergy(int toReceive, boolean simulate) {
+		if (!canReceive() || toReceive <= 0) {
+			return 0;
+		}
+		int limit = Math.min(maxReceive, toReceive);
+		while (true) {
+			int current = energy;
+			int energyReceived = Math.max(0, Math.min(capacity - current, limit));
+			if (simulate || energyReceived == 0) {
+				return energyReceived;
+			}
+			if (ENERGY.compareAndSet(this, current, current + energyReceived)) {
+				onChanged();
+				return energyReceived;
+			}
+		}
+	}
+
+	/**
+	 * 提取能量
+	 *
+	 * @param toExtract 要提取的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际提取的能量值
+	 */
+	@Override
+	public int extractEnergy(int toExtract, boolean simulate) {
+		if (!canExtract() || toExtract <= 0) {
+			return 0;
+		}
+		int limit = Math.min(maxExtract, toExtract);
+		while (true) {
+			int current = energy;
+			int energyExtracted = Math.max(0, Math.min(current, limit));
+			if (simulate || energyExtracted == 0) {
+				return energyExtracted;
+			}
+			if (ENERGY.compareAndSet(this, current, current - energyExtracted)) {
+				onChanged();
+				return energyExtracted;
+			}
+		}
+	}
+
+	/**
+	 * 通过 CAS 循环写入事务提交的能量变化，不会覆盖其他线程同时存取的能量
+	 * <br>
+	 * 结果不在 [0, 容量] 范围内时不写入，事务会撤销其他参与者的变化
+	 *
+	 * @param delta 能量变化，正数为接收，负数为提取
+	 * @return 是否写入
+	 */
+	@Override
+	public boolean applyEnergyDelta(long delta) {
+		if (delta == 0) {
+			return true;
+		}
+		while (true) {
+			int current = energy;
+			long next = current + delta;
+			if (next < 0 || next > capacity) {
+				return false;
+			}
+			if (ENERGY.compareAndSet(this, current, (int) next)) {
+				onChanged();
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * 获取存储的能量值
+	 *
+	 * @return 能量值
+	 */
+	@Override
+	public int getEnergyStored() {
+		return energy;
+	}
+
+	/**
+	 * 设置存储的能量值
+	 *
+	 * @param energy 能量值
+	 */
+	@Override
+	public void setEnergy(@Nonnegative int energy) {
+		if ((int) ENERGY.getAndSet(this, energy) != energy) {
+			onChanged();
+		}
+	}
+
+	/**
+	 * 获取最大能量存储容量
+	 *
+	 * @return 容量值
+	 */
+	@Override
+	public int getMaxEnergyStored() {
+		return capacity;
+	}
+
+	/**
+	 * 设置最大能量存储容量
+	 *
+	 * @param capacity 容量值
+	 */
+	@Override
+	public void setMaxEnergyStored(@Nonnegative int capacity) {
+		this.capacity = capacity;
+		onChanged();
+	}
+
+	/**
+	 * 获取最大能量接收量
+	 *
+	 * @return 最大能量接收量
+	 */
+	@Override
+	public int getMaxReceive() {
+		return maxReceive;
+	}
+
+	/**
+	 * 设置最大能量接收量
+	 *
+	 * @param maxReceive 最大接收量
+	 */
+	@Override
+	public void setMaxReceive(@Nonnegative int maxReceive) {
+		this.maxReceive = maxReceive;
+		onChanged();
+	}
+
+	/**
+	 * 获取最大能量提取量
+	 *
+	 * @return 最大能量提取量
+	 */
+	@Override
+	public int getMaxExtract() {
+		return maxExtract;
+	}
+
+	/**
+	 * 设置最大能量提取量
+	 *
+	 * @param maxExtract 最大提取量
+	 */
+	@Override
+	public void setMaxExtract(@Nonnegative int maxExtract) {
+		this.maxExtract = maxExtract;
+		onChanged();
+	}
+
+	/**
+	 * 检查是否可以提取能量
+	 *
+	 * @return 是否可以提取能量
+	 */
+	@Override
+	public boolean canExtract() {
+		return maxExtract > 0;
+	}
+
+	/**
+	 * 检查是否可以接收能量
+	 *
+	 * @return 是否可以接收能量
+	 */
+	@Override
+	public boolean canReceive() {
+		return maxReceive > 0;
+	}
+
+	/**
+	 * 序列化为NBT标签
+	 *
+	 * @param provider 数据提供者
+	 * @return NBT标签
+	 */
+	@Override
+	@Nonnull
+	public Tag serializeNBT(HolderLookup.Provider provider) {
+		CompoundTag nbt = new CompoundTag(4);
+		nbt.putInt("energy", energy);
+		nbt.putInt("capacity", capacity);
+		nbt.putInt("maxReceive", maxReceive);
+		nbt.putInt("maxExtract", maxExtract);
+		return nbt;
+	}
+
+	/**
+	 * 从NBT标签反序列化
+	 *
+	 * @param provider 数据提供者
+	 * @param nbt      NBT标签
+	 */
+	@Override
+	public void deserializeNBT(HolderLookup.Provider provider, Tag nbt) {
+		if (!(nbt instanceof CompoundTag compoundTag)) {
+			throw new IllegalArgumentException("Can not deserialize to an instance that isn't the " +
+					"default implementation");
+		}
+		capacity = compoundTag.getInt("capacity");
+		maxReceive = compoundTag.getInt("maxReceive");
+		maxExtract = compoundTag.getInt("maxExtract");
+		energy = compoundTag.getInt("energy");
+		onLoad();
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "AtomicEnergyStorage:{" +
+				"energy=" + energy +
+				", capacity=" + capacity +
+				", maxReceive=" + maxReceive +
+				", maxExtract=" + maxExtract + "}";
+	}
+
+	/**
+	 * 设置所有者，变化监听器与休眠凭证在所有者线程中调用
+	 *
+	 * @param owner 所有者，通常为服务端，null 表示在修改能量的线程中直接调用
+	 */
+	public void setOwner(@Nullable Executor owner) {
+		this.owner = owner;
+	}
+
+	/**
+	 * 获取所有者
+	 *
+	 * @return 所有者，未指定时返回 null
+	 */
+	@Nullable
+	public Executor getOwner() {
+		return owner;
+	}
+
+	/**
+	 * 设置能量变化监听器，监听器在所有者线程中调用
+	 *
+	 * @param onContentsChanged 能量变化监听器
+	 */
+	public void setOn(IEnergyStorageModify onContentsChanged) {
+		this.onContentsChanged = onContentsChanged;
+	}
+
+	/**
+	 * 当能量变化时调用，可以在任意线程中调用
+	 * <br>
+	 * 已有待执行的通知时不会重复提交
+	 */
+	public void onChanged() {
+		if (!CHANGE_PENDING.compareAndSet(this, false, true)) {
+			return;
+		}
+		Executor executor = owner;
+		if (executor == null || executor instanceof BlockableEventLoop<?> loop && loop.isSameThread()) {
+			deliverChanges();
+		} else {
+			executor.execute(deliverTask);
+		}
+	}
+
+	/**
+	 * 在所有者线程中发送变化通知
+	 */
+	private void deliverChanges() {
+		CHANGE_PENDING.setVolatile(this, false);
+		if (wakeTickets != null) wakeTickets.wakeAll();
+		IEnergyStorageModify listener = onContentsChanged;
+		if (listener != null) listener.onEnergyChanged();
+	}
+
+	/**
+	 * 登记休眠凭证，能量或传输上限变化时在所有者线程中唤醒
+	 * <br>
+	 * 只能在所有者线程中调用
+	 *
+	 * @param ticket 休眠凭证
+	 */
+	@Override
+	public void addWakeTicket(EnergyWakeTicket ticket) {
+		if (wakeTickets == null) wakeTickets = new EnergyWakeTicket.Holder();
+		wakeTickets.add(ticket);
+	}
+
+	/**
+	 * 当能量加载时调用
+	 */
+	public void onLoad() {
+		IEnergyStorageModify listener = onContentsChanged;
+		if (listener != null) listener.onEnergyLoad();
+	}
+}
@@ -0,0 +1,334 @@
+package ctn.ctnapi.adapter;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * 紧凑物品集合类
+ * 与 {@link NonEmptyItemList} 相同，索引 0 总是空物品栈，其余位置不包含空物品栈。
+ * <br>
+ * 移除时将末尾元素移动到被移除的位置，因此增删改均为均摊 O(1)，
+ * 但不保持元素顺序，适合大量不同物品的"背包"式存储。
+ * <br>
+ * <b>索引不稳定</b>：任何移除都可能改变其他元素的索引（原末尾元素移动到被移除的位置）。
+ * 需要长期引用某个物品栈时请保存 {@link #add(ItemStack)} 返回的句柄，句柄在元素被移除前保持不变，
+ * 通过 {@link #indexOf(int)} 获取当前索引。被移除元素的句柄会被之后添加的元素复用。
+ * <br>
+ * 由于移除会改变其他元素的索引，本类不实现 {@link List}，需要列表时请使用只读视图 {@link #asList()}。
+ */
+public class CompactItemList implements Iterable<ItemStack> {
+	/**
+	 * 空的首位的句柄
+	 */
+	public static final int EMPTY_HANDLE = 0;
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final List<ItemStack> view = new View();
+	private final IntArrayList freeHandles = new IntArrayList();
+	private ItemStack[] elements;
+	/**
+	 * 索引到句柄的映射
+	 */
+	private int[] handles;
+	/**
+	 * 句柄到索引的映射，已释放的句柄为 -1
+	 */
+	private int[] indices;
+	private int size;
+	private int nextHandle = EMPTY_HANDLE + 1;
+
+	/**
+	 * 构造函数
+	 */
+	public CompactItemList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * 构造函数
+	 *
+	 * @param initialCapacity 初始容量（不含空的首位）
+	 */
+	public CompactItemList(int initialCapacity) {
+		int capacity = Math.max(1, initialCapacity + 1);
+		elements = new ItemStack[capacity];
+		handles = new int[capacity];
+		indices = new int[capacity];
+		elements[0] = ItemStack.EMPTY;
+		handles[0] = EMPTY_HANDLE;
+		indices[EMPTY_HANDLE] = 0;
+		size = 1;
+	}
+
+	/**
+	 * 创建包含指定物品栈的集合，空物品栈会被忽略
+	 *
+	 * @param itemStacks 物品栈
+	 * @return 紧凑物品集合
+	 */
+	public static CompactItemList of(Collection<ItemStack> itemStacks) {
+		CompactItemList list = new CompactItemList(itemStacks.size());
+		for (ItemStack itemStack : itemStacks) {
+			list.add(itemStack);
+		}
+		return list;
+	}
+
+	/**
+	 * 获取指定索引处的物品栈
+	 *
+	 * @param index 索引
+	 * @return 物品栈
+	 */
+	public @NotNull ItemStack get(int index) {
+		Objects.checkIndex(index, size);
+		return elements[index];
+	}
+
+	/**
+	 * 获取句柄对应的物品栈
+	 *
+	 * @param handle 句柄
+	 * @return 物品栈
+	 * @throws IllegalArgumentException 当句柄无效或对应的元素已被移除时抛出
+	 */
+	public @NotNull ItemStack getByHandle(int handle) {
+		return elements[requireIndex(handle)];
+	}
+
+	/**
+	 * 获取指定索引处元素的句柄
+	 *
+	 * @param index 索引
+	 * @return 句柄，索引 0 为 {@link #EMPTY_HANDLE}
+	 */
+	public int handleAt(int index) {
+		Objects.checkIndex(index, size);
+		return handles[index];
+	}
+
+	/**
+	 * 获取句柄对应元素的当前索引
+	 *
+	 * @param handle 句柄
+	 * @return 索引，句柄无效或对应的元素已被移除时返回 -1
+	 */
+	public int indexOf(int handle) {
+		return handle >= 0 && handle < nextHandle ? indices[handle] : -1;
+	}
+
+	/**
+	 * 获取集合大小（包含空的首位）
+	 *
+	 * @return 集合大小
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否不包含任何非空物品栈
+	 *
+	 * @return 是否为空
+	 */
+	public boolean isEmpty() {
+		return size == 1;
+	}
+
+	/**
+	 * 替换指定索引处的物品栈，不改变其他元素的位置与句柄
+	 *
+	 * @param index 索引，不能为 0
+	 * @param value 物品栈值，不能为空物品栈
+	 * @return 之前的物品栈
+	 * @throws IllegalArgumentException 当索引为 0 或物品栈为空时抛出，移除请使用 {@link #swapRemove(int)}
+	 */
+	public @NotNull ItemStack set(int index, @NotNull ItemStack value) {
+		Objects.requireNonNull(value);
+		Objects.checkIndex(index, size);
+		if (index == 0) {
+			throw new IllegalArgumentException("Index 0 is reserved for the empty ItemStack");
+		}
+		if (value.isEmpty()) {
+			throw new IllegalArgumentException("Cannot put an empty ItemStack, use swapRemove instead");
+		}
+		ItemStack previous = elements[index];
+		elements[index] = value;
+		return previous;
+	}
+
+	/**
+	 * 替换句柄对应的物品栈
+	 *
+	 * @param handle 句柄
+	 * @param value  物品栈值，不能为空物品栈
+	 * @return 之前的物品栈
+	 * @throws IllegalArgumentException 当句柄无效或物品栈为空时抛出
+	 */
+	public @NotNull ItemStack setByHandle(int handle, @NotNull ItemStack value) {
+		return set(requireIndex(handle), value);
+	}
+
+	/**
+	 * 在末尾添加物品栈，空物品栈会被忽略
+	 *
+	 * @param value 物品栈值
+	 * @return 元素的句柄，空物品栈返回 -1；添加时的索引为 {@code size() - 1}
+	 */
+	public int add(@NotNull ItemStack value) {
+		Objects.requireNonNull(value);
+		if (value.isEmpty()) {
+			return -1;
+		}
+		grow();
+		int handle = freeHandles.isEmpty() ? nextHandle++ : freeHandles.popInt();
+		if (handle >= indices.length) {
+			indices = Arrays.copyOf(indices, Math.max(handle + 1, indices.length + (indices.length >> 1)));
+		}
+		elements[size] = value;
+		handles[size] = handle;
+		indices[handle] = size;
+		size++;
+		return handle;
+	}
+
+	/**
+	 * 移除指定索引处的物品栈，末尾的物品栈移动到该位置
+	 * <br>
+	 * 移除后原末尾元素（索引为移除后的 {@link #size()}）的索引变为 {@code index}，其句柄不变
+	 *
+	 * @param index 索引
+	 * @return 被移除的物品栈
+	 * @throws IllegalArgumentException 当索引为 0 时抛出
+	 */
+	public @NotNull ItemStack swapRemove(int index) {
+		Objects.checkIndex(index, size);
+		if (index == 0) {
+			throw new IllegalArgumentException("Index 0 is reserved for the empty ItemStack");
+		}
+		ItemStack previous = elements[index];
+		int removed = handles[index];
+		int last = --size;
+		elements[index] = elements[last];
+		handles[index] = handles[last];
+		indices[handles[index]] = index;
+		elements[last] = null;
+		indices[removed] = -1;
+		freeHandles.add(removed);
+		return previous;
+	}
+
+	/**
+	 * 移除句柄对应的物品栈，其他元素的句柄不变
+	 *
+	 * @param handle 句柄
+	 * @return 被移除的物品栈
+	 * @throws IllegalArgumentException 当句柄无效、为 {@link #EMPTY_HANDLE} 或对应的元素已被移除时抛出
+	 */
+	public @NotNull ItemStack remove(int handle) {
+		return swapRemove(requireIndex(handle));
+	}
+
+	/**
+	 * 清空集合，只保留空的首位，所有句柄失效
+	 */
+	public void clear() {
+		Arrays.fill(elements, 1, size, null);
+		Arrays.fill(indices, EMPTY_HANDLE + 1, nextHandle, -1);
+		freeHandles.clear();
+		nextHandle = EMPTY_HANDLE + 1;
+		size = 1;
+	}
+
+	/**
+	 * 移除所有空物品栈，通常用于物品栈被外部修改数量后
+	 */
+	public void update() {
+		for (int i = size - 1; i >= 1; i--) {
+			if (elements[i].isEmpty()) {
+				swapRemove(i);
+			}
+		}
+	}
+
+	/**
+	 * 获取只读列表视图，总是反映当前内容
+	 *
+	 * @return 只读列表视图
+	 */
+	public List<ItemStack> asList() {
+		return view;
+	}
+
+	/**
+	 * 获取只读迭代器
+	 *
+	 * @return 迭代器
+	 */
+	@Override
+	public @NotNull Iterator<ItemStack> iterator() {
+		return view.iterator();
+	}
+
+	private int requireIndex(int handle) {
+		int index = indexOf(handle);
+		if (index < 0) {
+			throw new IllegalArgumentException("Invalid handle: " + handle);
+		}
+		return index;
+	}
+
+	private void grow() {
+		if (size == elements.length) {
+			int length = elements.length + (elements.length >> 1) + 1;
+			elements = Arrays.copyOf(elements, length);
+			handles = Arrays.copyOf(handles, length);
+		}
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "CompactItemList:{" +
+				"size=" + size + "}";
+	}
+
+	/**
+	 * 只读列表视图
+	 */
+	private final class View extends AbstractList<ItemStack> implements RandomAccess {
+		/**
+		 * 获取指定索引处的物品栈
+		 *
+		 * @param index 索引
+		 * @return 物品栈
+		 */
+		@Override
+		public ItemStack get(int index) {
+			return CompactItemList.this.get(index);
+		}
+
+		/**
+		 * 获取列表大小（包含空的首位）
+		 *
+		 * @return 列表大小
+		 */
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
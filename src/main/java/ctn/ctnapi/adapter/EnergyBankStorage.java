@@ -0,0 +1,208 @@
+package ctn.ctnapi.adapter;
+
+import ctn.ctnapi.capability.IModEnergyStorage;
+import ctn.ctnapi.common.energy.EnergyBankSavedData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * 能量银行存储
+ * 绑定到 {@link EnergyBankSavedData} 中的一个银行，所有操作转发给银行。
+ * 银行不存在（如被移除）时表现为容量为 0 的空存储。
+ */
+public class EnergyBankStorage implements IModEnergyStorage {
+	private final EnergyBankSavedData data;
+	private final UUID id;
+
+	/**
+	 * 构造函数
+	 *
+	 * @param data 能量银行数据
+	 * @param id   银行 UUID
+	 */
+	public EnergyBankStorage(@NotNull EnergyBankSavedData data, @NotNull UUID id) {
+		this.data = data;
+		this.id = id;
+	}
+
+	/**
+	 * 获取银行 UUID
+	 *
+	 * @return 银行 UUID
+	 */
+	public UUID getId() {
+		return id;
+	}
+
+	/**
+	 * 获取绑定的银行
+	 *
+	 * @return 银行能量存储，不存在时返回 null
+	 */
+	@Nullable
+	public AtomicModEnergyStorage getBank() {
+		return data.get(id);
+	}
+
+	/**
+	 * 设置能量值
+	 *
+	 * @param energy 能量值
+	 */
+	@Override
+	public void setEnergy(int energy) {
+		AtomicModEnergyStorage bank = getBank();
+		if (bank != null) bank.setEnergy(energy);
+	}
+
+	/**
+	 * 设置最大能量存储值
+	 *
+	 * @param capacity 容量值
+	 */
+	@Override
+	public void setMaxEnergyStored(int capacity) {
+		AtomicModEnergyStorage bank = getBank();
+		if (bank != null) bank.setMaxEnergyStored(capacity);
+	}
+
+	/**
+	 * 获取最大能量提取值
+	 *
+	 * @return 最大能量提取值
+	 */
+	@Override
+	public int getMaxExtract() {
+		AtomicModEnergyStorage bank = getBank();
+		return bank == null ? 0 : bank.getMaxExtract();
+	}
+
+	/**
+	 * 设置最大能量提取值
+	 *
+	 * @param maxExtract 最大提取值
+	 */
+	@Override
+	public void setMaxExtract(int maxExtract) {
+		AtomicModEnergyStorage bank = getBank();
+		if (bank != null) bank.setMaxExtract(maxExtract);
+	}
+
+	/**
+	 * 获取最大能量接收值
+	 *
+	 * @return 最大能量接收值
+	 */
+	@Override
+	public int getMaxReceive() {
+		AtomicModEnergyStorage bank = getBank();
+		return bank == null ? 0 : bank.getMaxReceive();
+	}
+
+	/**
+	 * 设置最大能量接收值
+	 *
+	 * @param maxReceive 最大接收值
+	 */
+	@Override
+	public void setMaxReceive(int maxReceive) {
+		AtomicModEnergyStorage bank = getBank();
+		if (bank != null) bank.setMaxReceive(maxReceive);
+	}
+
+	/**
+	 * 接收能量
+	 *
+	 * @param toReceive 要接收的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际接收的能量值
+	 */
+	@Override
+	public int receiveEnergy(int toReceive, boolean simulate) {
+		AtomicModEnergyStorage bank = getBank();
+		return bank == null ? 0 : bank.receiveEnergy(toReceive, simulate);
+	}
+
+	/**
+	 * 提取能量
+	 *
+	 * @param toExtract 要提取的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际提取的能量值
+	 */
+	@Override
+	public int extractEnergy(int toExtract, boolean simulate) {
+		AtomicModEnergyStorage bank = getBank();
+		return bank == null ? 0 : bank.extractEnergy(toExtract, simulate);
+	}
+
+	/**
+	 * 写入事务提交的能量变化，转发给银行的 CAS 写入，不会覆盖其他线程同时存取的能量
+	 *
+	 * @param delta 能量变化，正数为接收，负数为提取
+	 * @return 是否写入
+	 */
+	@Override
+	public boolean applyEnergyDelta(long delta) {
+		AtomicModEnergyStorage bank = getBank();
+		return bank == null ? delta == 0 : bank.applyEnergyDelta(delta);
+	}
+
+	/**
+	 * 获取存储的能量值
+	 *
+	 * @return 存储的能量值
+	 */
+	@Override
+	public int getEnergyStored() {
+		AtomicModEnergyStorage bank = getBank();
+		return bank == null ? 0 : bank.getEnergyStored();
+	}
+
+	/**
+	 * 获取最大能量存储值
+	 *
+	 * @return 最大能量存储值
+	 */
+	@Override
+	public int getMaxEnergyStored() {
+		AtomicModEnergyStorage bank = getBank();
+		return bank == null ? 0 : bank.getMaxEnergyStored();
+	}
+
+	/**
+	 * 检查是否可以提取能量
+	 *
+	 * @return 是否可以提取能量
+	 */
+	@Override
+	public boolean canExtract() {
+		AtomicModEnergyStorage bank = getBank();
+		return bank != null && bank.canExtract();
+	}
+
+	/**
+	 * 检查是否可以接收能量
+	 *
+	 * @return 是否可以接收能量
+	 */
+	@Override
+	public boolean canReceive() {
+		AtomicModEnergyStorage bank = getBank();
+		return bank != null && bank.canReceive();
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "EnergyBankStorage:{" +
+				"id=" + id +
+				", bank=" + getBank() + "}";
+	}
+}
@@ -0,0 +1,157 @@
+package ctn.ctnapi.adapter;
+
+import net.minecraft.util.Mth;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 预测能量存储适配器类
+ * 用于客户端：保存最近一次服务端同步的能量值与变化速率，
+ * 在两次同步之间按速率推算当前能量，收到新的同步数据时立即对齐。
+ * <br>
+ * 服务端可以因此降低同步频率而不影响能量条的平滑显示
+ */
+public class ExtrapolatingModEnergyStorage extends ModEnergyStorage {
+	private final LongSupplier clock;
+	/**
+	 * 每刻的能量变化速率
+	 */
+	private int rate;
+	/**
+	 * 最近一次同步的时间
+	 */
+	private long syncTime;
+
+	/**
+	 * 构造函数
+	 *
+	 * @param capacity 能量存储容量
+	 * @param clock    时钟，通常为 {@code level::getGameTime}
+	 */
+	public ExtrapolatingModEnergyStorage(int capacity, LongSupplier clock) {
+		super(capacity);
+		this.clock = clock;
+		this.syncTime = clock.getAsLong();
+	}
+
+	/**
+	 * 构造函数
+	 *
+	 * @param capacity   能量存储容量
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @param energy     初始能量值
+	 * @param clock      时钟，通常为 {@code level::getGameTime}
+	 */
+	public ExtrapolatingModEnergyStorage(int capacity, int maxReceive, int maxExtract, int energy, LongSupplier clock) {
+		super(capacity, maxReceive, maxExtract, energy);
+		this.clock = clock;
+		this.syncTime = clock.getAsLong();
+	}
+
+	/**
+	 * 对齐到服务端同步的数据
+	 *
+	 * @param capacity   容量值
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @param energy     能量值
+	 * @param rate       每刻的能量变化速率
+	 */
+	public void snap(int capacity, int maxReceive, int maxExtract, int energy, int rate) {
+		this.rate = rate;
+		setEnergyStored(capacity, maxReceive, maxExtract, energy);
+	}
+
+	/**
+	 * 获取预测的能量值
+	 *
+	 * @return 预测的能量值
+	 */
+	@Override
+	public int getEnergyStored() {
+		if (rate == 0) {
+			return energy;
+		}
+		long elapsed = Math.max(0, clock.getAsLong() - syncTime);
+		return (int) Mth.clamp(energy + rate * elapsed, 0, capacity);
+	}
+
+	/**
+	 * 设置所有能量存储参数并重新开始预测
+	 *
+	 * @param capacity   容量值
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @param energy     能量值
+	 */
+	@Override
+	public void setEnergyStored(int capacity, int maxReceive, int maxExtract, int energy) {
+		syncTime = clock.getAsLong();
+		super.setEnergyStored(capacity, maxReceive, maxExtract, energy);
+	}
+
+	/**
+	 * 设置能量值并重新开始预测
+	 *
+	 * @param energy 能量值
+	 */
+	@Override
+	public void setEnergy(int energy) {
+		syncTime = clock.getAsLong();
+		super.setEnergy(energy);
+	}
+
+	/**
+	 * 接收能量，以预测值为基准
+	 *
+	 * @param toReceive 要接收的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际接收的能量值
+	 */
+	@Override
+	public int receiveEnergy(int toReceive, boolean simulate) {
+		rebase();
+		return super.receiveEnergy(toReceive, simulate);
+	}
+
+	/**
+	 * 提取能量，以预测值为基准
+	 *
+	 * @param toExtract 要提取的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际提取的能量值
+	 */
+	@Override
+	public int extractEnergy(int toExtract, boolean simulate) {
+		rebase();
+		return super.extractEnergy(toExtract, simulate);
+	}
+
+	/**
+	 * 获取每刻的能量变化速率
+	 *
+	 * @return 能量变化速率
+	 */
+	public int getRate() {
+		return rate;
+	}
+
+	/**
+	 * 设置每刻的能量变化速率，从当前预测值开始继续预测
+	 *
+	 * @param rate 能量变化速率
+	 */
+	public void setRate(int rate) {
+		rebase();
+		this.rate = rate;
+	}
+
+	/**
+	 * 将预测值写入能量值并重置同步时间
+	 */
+	private void rebase() {
+		energy = getEnergyStored();
+		syncTime = clock.getAsLong();
+	}
+}
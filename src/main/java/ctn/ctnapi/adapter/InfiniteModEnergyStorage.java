@@ -1,10 +1,25 @@
 package ctn.ctnapi.adapter;
 
+import ctn.ctnapi.capability.EnergyWakeTicket;
+import ctn.ctnapi.capability.IEnergyChangeListener;
+import ctn.ctnapi.capability.IEnergyStorageModify;
+import ctn.ctnapi.common.energy.EnergyThroughputMetrics;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.Tag;
+import org.jetbrains.annotations.Nullable;
+
 /**
  * 无限能量存储适配器类
  * 提供无限能量存储的实现，能量值始终为最大值
+ * <br>
+ * 不需要监听器时请使用共享的 {@link #INSTANCE}，提取能量不会触发变化通知
  */
 public class InfiniteModEnergyStorage extends ModEnergyStorage {
+	/**
+	 * 共享的无限能量存储，忽略监听器等所有可变状态
+	 */
+	public static final InfiniteModEnergyStorage INSTANCE = new Shared();
+
 	/**
 	 * 构造函数，初始化无限能量存储
 	 * 将所有参数设置为Integer.MAX_VALUE
@@ -108,4 +123,110 @@ public class InfiniteModEnergyStorage extends ModEnergyStorage {
 	@Override
 	public void setEnergy(int energy) {
 	}
-}
\ No newline at end of file
+
+	/**
+	 * 设置所有能量存储参数（无操作）
+	 *
+	 * @param capacity   容量值
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @param energy     能量值
+	 */
+	@Override
+	public void setEnergyStored(int capacity, int maxReceive, int maxExtract, int energy) {
+	}
+
+	/**
+	 * 提取能量，能量不会减少因此不触发变化通知
+	 *
+	 * @param toExtract 要提取的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际提取的能量值
+	 */
+	@Override
+	public int extractEnergy(int toExtract, boolean simulate) {
+		return Math.max(0, toExtract);
+	}
+
+	/**
+	 * 接收能量
+	 *
+	 * @param toReceive 要接收的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 0 (不接收能量)
+	 */
+	@Override
+	public int receiveEnergy(int toReceive, boolean simulate) {
+		return 0;
+	}
+
+	/**
+	 * 是否为无限能量源
+	 *
+	 * @return true
+	 */
+	@Override
+	public boolean isInfiniteSource() {
+		return true;
+	}
+
+	/**
+	 * 共享的无限能量存储
+	 */
+	private static final class Shared extends InfiniteModEnergyStorage {
+		/**
+		 * 设置能量变化监听器（无操作）
+		 *
+		 * @param onContentsChanged 能量变化监听器
+		 */
+		@Override
+		public void setOn(IEnergyStorageModify onContentsChanged) {
+		}
+
+		/**
+		 * 添加能量变化监听器（无操作），能量永远不会变化
+		 *
+		 * @param listener 能量变化监听器
+		 */
+		@Override
+		public void addListener(IEnergyChangeListener listener) {
+		}
+
+		/**
+		 * 设置是否合并变化通知（无操作）
+		 *
+		 * @param coalesceChanges 是否合并变化通知
+		 */
+		@Override
+		public void setCoalesceChanges(boolean coalesceChanges) {
+		}
+
+		/**
+		 * 设置吞吐统计（无操作）
+		 *
+		 * @param metrics 吞吐统计
+		 */
+		@Override
+		public void setMetrics(@Nullable EnergyThroughputMetrics metrics) {
+		}
+
+		/**
+		 * 登记休眠凭证（无操作），能量永远不会变化
+		 *
+		 * @param ticket 休眠凭证
+		 */
+		@Override
+		public void addWakeTicket(EnergyWakeTicket ticket) {
+		}
+
+		/**
+		 * 从NBT标签反序列化（无操作）
+		 *
+		 * @param provider 数据提供者
+		 * @param nbt      NBT标签
+		 */
+		@Override
+		public void deserializeNBT(HolderLookup.Provider provider, Tag nbt) {
+		}
+	}
+}
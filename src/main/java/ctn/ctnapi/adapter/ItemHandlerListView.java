@@ -0,0 +1,140 @@
+package ctn.ctnapi.adapter;
+
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.items.IItemHandler;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * IItemHandler 列表视图类
+ * 只读且不复制的物品栈列表，读取时直接调用 {@link IItemHandler#getStackInSlot(int)}，
+ * 因此总是反映物品处理器的当前内容。
+ * <br>
+ * 与 {@link IItemHandler#getStackInSlot(int)} 相同，返回的物品栈不应被修改。
+ */
+public class ItemHandlerListView extends AbstractList<ItemStack> implements RandomAccess {
+	private final IItemHandler handler;
+
+	/**
+	 * 构造函数
+	 *
+	 * @param handler 物品处理器
+	 */
+	public ItemHandlerListView(@NotNull IItemHandler handler) {
+		this.handler = Objects.requireNonNull(handler);
+	}
+
+	/**
+	 * 获取物品处理器
+	 *
+	 * @return 物品处理器
+	 */
+	public IItemHandler getHandler() {
+		return handler;
+	}
+
+	/**
+	 * 获取指定槽位的物品栈
+	 *
+	 * @param index 槽位
+	 * @return 物品栈
+	 */
+	@Override
+	public @NotNull ItemStack get(int index) {
+		Objects.checkIndex(index, handler.getSlots());
+		return handler.getStackInSlot(index);
+	}
+
+	/**
+	 * 获取槽位数量
+	 *
+	 * @return 槽位数量
+	 */
+	@Override
+	public int size() {
+		return handler.getSlots();
+	}
+
+	/**
+	 * 遍历所有物品栈
+	 *
+	 * @param action 操作
+	 */
+	@Override
+	public void forEach(Consumer<? super ItemStack> action) {
+		Objects.requireNonNull(action);
+		int slots = handler.getSlots();
+		for (int i = 0; i < slots; i++) {
+			action.accept(handler.getStackInSlot(i));
+		}
+	}
+
+	/**
+	 * 创建按槽位分割的迭代器
+	 *
+	 * @return 分割迭代器
+	 */
+	@Override
+	public @NotNull Spliterator<ItemStack> spliterator() {
+		return new SlotSpliterator(handler, 0, handler.getSlots());
+	}
+
+	/**
+	 * 按槽位分割的迭代器，不检查并发修改
+	 */
+	private static final class SlotSpliterator implements Spliterator<ItemStack> {
+		private final IItemHandler handler;
+		private int index;
+		private final int end;
+
+		private SlotSpliterator(IItemHandler handler, int index, int end) {
+			this.handler = handler;
+			this.index = index;
+			this.end = end;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super ItemStack> action) {
+			if (index >= end) {
+				return false;
+			}
+			action.accept(handler.getStackInSlot(index++));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super ItemStack> action) {
+			int i = index;
+			index = end;
+			for (; i < end; i++) {
+				action.accept(handler.getStackInSlot(i));
+			}
+		}
+
+		@Override
+		public Spliterator<ItemStack> trySplit() {
+			int mid = (index + end) >>> 1;
+			if (mid <= index) {
+				return null;
+			}
+			SlotSpliterator prefix = new SlotSpliterator(handler, index, mid);
+			index = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return end - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | NONNULL;
+		}
+	}
+}
@@ -0,0 +1,311 @@
+package ctn.ctnapi.adapter;
+
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+
+import javax.annotation.Nonnull;
+import java.util.function.LongSupplier;
+
+/**
+ * 惰性能量存储适配器类
+ * 保存 (某一刻的能量, 每刻变化速率, 该刻时间)，只在读取时计算当前能量，
+ * 以恒定速率发电或耗电的方块无需每刻运行即可改变能量。
+ * <br>
+ * 速率导致的被动变化不会触发变化通知，但会反映在 {@link #version()} 中；可通过 {@link #getTicksUntilFull()} 与
+ * {@link #getTicksUntilEmpty()} 安排下一次需要处理的时间。
+ * <br>
+ * 时钟返回负数表示时间不可用（如方块实体构造时世界尚未设置），此时不计算被动变化，
+ * 时间在第一次可用时才开始计算，方块实体请使用 {@link #clockOf(BlockEntity)}。
+ */
+public class LazyModEnergyStorage extends ModEnergyStorage {
+	/**
+	 * 时间尚未开始计算
+	 */
+	private static final long UNSET = -1;
+	private final LongSupplier clock;
+	/**
+	 * 每刻的能量变化速率，正数为发电，负数为耗电
+	 */
+	private int rate;
+	/**
+	 * {@link #energy} 对应的时间，为 {@link #UNSET} 时在第一次读取时开始计算
+	 */
+	private long lastTick = UNSET;
+
+	/**
+	 * 构造函数
+	 *
+	 * @param capacity 能量存储容量
+	 * @param clock    时钟，通常为 {@link #clockOf(BlockEntity)}，构造时不会调用
+	 */
+	public LazyModEnergyStorage(int capacity, LongSupplier clock) {
+		super(capacity);
+		this.clock = clock;
+	}
+
+	/**
+	 * 构造函数
+	 *
+	 * @param capacity   能量存储容量
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @param energy     初始能量值
+	 * @param clock      时钟，通常为 {@link #clockOf(BlockEntity)}，构造时不会调用
+	 */
+	public LazyModEnergyStorage(int capacity, int maxReceive, int maxExtract, int energy, LongSupplier clock) {
+		super(capacity, maxReceive, maxExtract, energy);
+		this.clock = clock;
+	}
+
+	/**
+	 * 创建方块实体的时钟，世界未设置时返回 -1
+	 * <br>
+	 * 方块实体在构造函数中创建能量存储时世界尚未设置，不能直接使用 {@code level::getGameTime}
+	 *
+	 * @param blockEntity 方块实体
+	 * @return 时钟
+	 */
+	public static LongSupplier clockOf(BlockEntity blockEntity) {
+		return () -> {
+			Level level = blockEntity.getLevel();
+			return level == null ? UNSET : level.getGameTime();
+		};
+	}
+
+	/**
+	 * 获取当前能量值
+	 *
+	 * @return 当前能量值
+	 */
+	@Override
+	public int getEnergyStored() {
+		if (rate == 0) {
+			return energy;
+		}
+		return (int) Mth.clamp(energy + rate * elapsed(), 0, capacity);
+	}
+
+	/**
+	 * 获取版本号，包括按速率被动变化的刻数
+	 * <br>
+	 * 能量每因速率变化一刻版本号就增大 1，充满或耗尽后不再增大
+	 *
+	 * @return 版本号
+	 */
+	@Override
+	public long version() {
+		return super.version() + passiveTicks();
+	}
+
+	/**
+	 * 获取距离上次写入能量经过的刻数，时间不可用时为 0
+	 *
+	 * @return 刻数
+	 */
+	private long elapsed() {
+		long now = clock.getAsLong();
+		if (now < 0) {
+			return 0;
+		}
+		if (lastTick < 0) {
+			lastTick = now;
+			return 0;
+		}
+		return Math.max(0, now - lastTick);
+	}
+
+	/**
+	 * 获取能量因速率真正变化的刻数
+	 *
+	 * @return 刻数
+	 */
+	private long passiveTicks() {
+		if (rate == 0) {
+			return 0;
+		}
+		long limit = rate > 0 ? ((long) capacity - energy + rate - 1) / rate : ((long) energy - rate - 1) / -rate;
+		return Math.min(elapsed(), Math.max(0, limit));
+	}
+
+	/**
+	 * 获取每刻的能量变化速率
+	 *
+	 * @return 能量变化速率
+	 */
+	public int getRate() {
+		return rate;
+	}
+
+	/**
+	 * 设置每刻的能量变化速率
+	 *
+	 * @param rate 能量变化速率，正数为发电，负数为耗电
+	 */
+	public void setRate(int rate) {
+		if (this.rate == rate) {
+			return;
+		}
+		materialize();
+		this.rate = rate;
+		advanceVersion(1);
+		onChanged();
+	}
+
+	/**
+	 * 获取距离充满所需的刻数
+	 *
+	 * @return 刻数，已满时为 0，速率不为正时为 -1
+	 */
+	public long getTicksUntilFull() {
+		int energyStored = getEnergyStored();
+		if (energyStored >= capacity) {
+			return 0;
+		}
+		if (rate <= 0) {
+			return -1;
+		}
+		return ((long) capacity - energyStored + rate - 1) / rate;
+	}
+
+	/**
+	 * 获取距离耗尽所需的刻数
+	 *
+	 * @return 刻数，已空时为 0，速率不为负时为 -1
+	 */
+	public long getTicksUntilEmpty() {
+		int energyStored = getEnergyStored();
+		if (energyStored <= 0) {
+			return 0;
+		}
+		if (rate >= 0) {
+			return -1;
+		}
+		return ((long) energyStored - rate - 1) / -rate;
+	}
+
+	/**
+	 * 将当前计算出的能量写入能量值并重置时间
+	 * <br>
+	 * 被动变化的刻数计入版本号，写入前后 {@link #version()} 不变
+	 */
+	public void materialize() {
+		long passive = passiveTicks();
+		if (passive > 0) {
+			energy = getEnergyStored();
+			advanceVersion(passive);
+		}
+		lastTick = clock.getAsLong();
+	}
+
+	/**
+	 * 设置存储的能量值
+	 *
+	 * @param energy 能量值
+	 */
+	@Override
+	public void setEnergy(int energy) {
+		advanceVersion(passiveTicks());
+		lastTick = clock.getAsLong();
+		super.setEnergy(energy);
+	}
+
+	/**
+	 * 设置最大能量存储容量
+	 *
+	 * @param capacity 容量值
+	 */
+	@Override
+	public void setMaxEnergyStored(int capacity) {
+		materialize();
+		super.setMaxEnergyStored(capacity);
+	}
+
+	/**
+	 * 设置所有能量存储参数
+	 *
+	 * @param capacity   容量值
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @param energy     能量值
+	 */
+	@Override
+	public void setEnergyStored(int capacity, int maxReceive, int maxExtract, int energy) {
+		advanceVersion(passiveTicks());
+		lastTick = clock.getAsLong();
+		super.setEnergyStored(capacity, maxReceive, maxExtract, energy);
+	}
+
+	/**
+	 * 接收能量
+	 *
+	 * @param toReceive 要接收的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际接收的能量值
+	 */
+	@Override
+	public int receiveEnergy(int toReceive, boolean simulate) {
+		materialize();
+		return super.receiveEnergy(toReceive, simulate);
+	}
+
+	/**
+	 * 提取能量
+	 *
+	 * @param toExtract 要提取的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际提取的能量值
+	 */
+	@Override
+	public int extractEnergy(int toExtract, boolean simulate) {
+		materialize();
+		return super.extractEnergy(toExtract, simulate);
+	}
+
+	/**
+	 * 写入事务提交的能量变化，先写入按速率计算出的能量
+	 *
+	 * @param delta 能量变化，正数为接收，负数为提取
+	 * @return 是否写入
+	 */
+	@Override
+	public boolean applyEnergyDelta(long delta) {
+		materialize();
+		return super.applyEnergyDelta(delta);
+	}
+
+	/**
+	 * 序列化为NBT标签
+	 *
+	 * @param provider 数据提供者
+	 * @return NBT标签
+	 */
+	@Override
+	@Nonnull
+	public Tag serializeNBT(HolderLookup.Provider provider) {
+		CompoundTag nbt = (CompoundTag) super.serializeNBT(provider);
+		nbt.putInt("energy", getEnergyStored());
+		nbt.putInt("rate", rate);
+		return nbt;
+	}
+
+	/**
+	 * 从NBT标签反序列化
+	 *
+	 * @param provider 数据提供者
+	 * @param nbt      NBT标签
+	 */
+	@Override
+	public void deserializeNBT(HolderLookup.Provider provider, Tag nbt) {
+		advanceVersion(passiveTicks());
+		if (nbt instanceof CompoundTag compoundTag) {
+			rate = compoundTag.getInt("rate");
+		}
+		// 读取时世界可能尚未设置，时间不可用时在第一次读取时开始计算
+		lastTick = clock.getAsLong();
+		super.deserializeNBT(provider, nbt);
+	}
+}
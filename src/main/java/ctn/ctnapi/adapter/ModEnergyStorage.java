@@ -1,7 +1,13 @@
 package ctn.ctnapi.adapter;
 
+import ctn.ctnapi.capability.EnergyChangeCause;
+import ctn.ctnapi.capability.EnergyWakeTicket;
+import ctn.ctnapi.capability.IEnergyChangeListener;
 import ctn.ctnapi.capability.IEnergyStorageModify;
+import ctn.ctnapi.capability.IEnergyWakeSource;
 import ctn.ctnapi.capability.IModEnergyStorage;
+import ctn.ctnapi.common.energy.EnergyThroughputMetrics;
+import ctn.ctnapi.common.energy.EnergyTickScheduler;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.Tag;
@@ -10,14 +16,38 @@ import net.neoforged.neoforge.energy.EnergyStorage;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
 
 /**
  * 模组能量存储适配器类
  * 扩展了NeoForge的能量存储实现，提供了更多自定义功能
  */
-public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage {
+public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage, IEnergyWakeSource {
+	private static final IEnergyChangeListener[] NO_LISTENERS = new IEnergyChangeListener[0];
 	@Nullable
 	protected IEnergyStorageModify onContentsChanged;
+	/**
+	 * 是否合并变化通知，开启后每刻最多通知一次
+	 */
+	protected boolean coalesceChanges;
+	private boolean changePending;
+	private int notifiedEnergy;
+	private int notifiedCapacity;
+	private boolean limitsPending;
+	/**
+	 * 写时复制的能量变化监听器，分发时不分配对象
+	 */
+	private IEnergyChangeListener[] listeners = NO_LISTENERS;
+	/**
+	 * 版本号，每次真正修改时递增
+	 */
+	private long version;
+	@Nullable
+	private Runnable flushTask;
+	@Nullable
+	private EnergyWakeTicket.Holder wakeTickets;
+	@Nullable
+	private EnergyThroughputMetrics metrics;
 
 	/**
 	 * 构造函数，使用指定容量创建能量存储
@@ -68,8 +98,9 @@ public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage
 	 */
 	@Override
 	public void setEnergy(@Nonnegative int energy) {
+		int oldEnergy = this.energy;
 		this.energy = energy;
-		onChanged();
+		onChanged(oldEnergy, capacity, false, EnergyChangeCause.SET_ENERGY);
 	}
 
 	/**
@@ -79,8 +110,9 @@ public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage
 	 */
 	@Override
 	public void setMaxEnergyStored(@Nonnegative int capacity) {
+		int oldCapacity = this.capacity;
 		this.capacity = capacity;
-		onChanged();
+		onChanged(energy, oldCapacity, false, EnergyChangeCause.SET_CAPACITY);
 	}
 
 	/**
@@ -101,8 +133,9 @@ public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage
 	 */
 	@Override
 	public void setMaxExtract(@Nonnegative int maxExtract) {
+		boolean changed = this.maxExtract != maxExtract;
 		this.maxExtract = maxExtract;
-		onChanged();
+		onChanged(energy, capacity, changed, EnergyChangeCause.SET_LIMITS);
 	}
 
 	/**
@@ -123,8 +156,9 @@ public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage
 	 */
 	@Override
 	public void setMaxReceive(@Nonnegative int maxReceive) {
+		boolean changed = this.maxReceive != maxReceive;
 		this.maxReceive = maxReceive;
-		onChanged();
+		onChanged(energy, capacity, changed, EnergyChangeCause.SET_LIMITS);
 	}
 
 	/**
@@ -137,7 +171,10 @@ public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage
 	@Override
 	public int receiveEnergy(int toReceive, boolean simulate) {
 		int energy = super.receiveEnergy(toReceive, simulate);
-		if (!simulate) onChanged();
+		if (!simulate && energy > 0) {
+			if (metrics != null) metrics.recordReceived(energy);
+			onChanged(this.energy - energy, capacity, false, EnergyChangeCause.RECEIVE);
+		}
 		return energy;
 	}
 
@@ -151,10 +188,41 @@ public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage
 	@Override
 	public int extractEnergy(int toExtract, boolean simulate) {
 		int energy = super.extractEnergy(toExtract, simulate);
-		if (!simulate) onChanged();
+		if (!simulate && energy > 0) {
+			if (metrics != null) metrics.recordExtracted(energy);
+			onChanged(this.energy + energy, capacity, false, EnergyChangeCause.EXTRACT);
+		}
 		return energy;
 	}
 
+	/**
+	 * 写入事务提交的能量变化，结果不在 [0, 容量] 范围内时不写入
+	 * <br>
+	 * 子类重写了 {@link #receiveEnergy(int, boolean)} 或 {@link #extractEnergy(int, boolean)} 时也应重写本方法，
+	 * 否则不会参与 {@link ctn.ctnapi.capability.EnergyTransaction}
+	 *
+	 * @param delta 能量变化，正数为接收，负数为提取
+	 * @return 是否写入
+	 */
+	@Override
+	public boolean applyEnergyDelta(long delta) {
+		long energy = this.energy + delta;
+		if (energy < 0 || energy > capacity) {
+			return false;
+		}
+		int oldEnergy = this.energy;
+		this.energy = (int) energy;
+		if (metrics != null) {
+			if (delta > 0) {
+				metrics.recordReceived(delta);
+			} else if (delta < 0) {
+				metrics.recordExtracted(-delta);
+			}
+		}
+		onChanged(oldEnergy, capacity, false, delta > 0 ? EnergyChangeCause.RECEIVE : EnergyChangeCause.EXTRACT);
+		return true;
+	}
+
 	/**
 	 * 序列化为NBT标签
 	 *
@@ -188,6 +256,7 @@ public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage
 		capacity = compoundTag.getInt("capacity");
 		maxReceive = compoundTag.getInt("maxReceive");
 		maxExtract = compoundTag.getInt("maxExtract");
+		version++;
 		onLoad();
 	}
 
@@ -199,7 +268,7 @@ public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage
 	@Override
 	public String toString() {
 		return "EnergyStorage:{" +
-				"energy=" + energy +
+				"energy=" + getEnergyStored() +
 				"capacity=" + capacity +
 				"maxReceive=" + maxReceive +
 				"maxExtract=" + maxExtract + "}";
@@ -211,7 +280,7 @@ public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage
 	 * @return 能量存储百分比
 	 */
 	public int getPercentage() {
-		return Math.round((float) energy / capacity * 100.0f);
+		return Math.round((float) getEnergyStored() / getMaxEnergyStored() * 100.0f);
 	}
 
 	/**
@@ -223,13 +292,203 @@ public class ModEnergyStorage extends EnergyStorage implements IModEnergyStorage
 		this.onContentsChanged = onContentsChanged;
 	}
 
+	/**
+	 * 设置是否合并变化通知
+	 * <br>
+	 * 开启后变化只记录脏标记，在服务端刻结束时通过 {@link EnergyTickScheduler} 统一调用一次
+	 * {@link IEnergyStorageModify#onEnergyChanged(int, int, int, int)}。仅用于服务端。
+	 *
+	 * @param coalesceChanges 是否合并变化通知
+	 */
+	public void setCoalesceChanges(boolean coalesceChanges) {
+		if (this.coalesceChanges == coalesceChanges) {
+			return;
+		}
+		if (coalesceChanges) {
+			notifiedEnergy = energy;
+			notifiedCapacity = capacity;
+			limitsPending = false;
+		}
+		this.coalesceChanges = coalesceChanges;
+		if (!coalesceChanges) {
+			flushChanges();
+		}
+	}
+
+	/**
+	 * 是否合并变化通知
+	 *
+	 * @return 是否合并变化通知
+	 */
+	public boolean isCoalesceChanges() {
+		return coalesceChanges;
+	}
+
+	/**
+	 * 设置所有能量存储参数，只触发一次变化通知
+	 *
+	 * @param capacity   容量值
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @param energy     能量值
+	 */
+	public void setEnergyStored(@Nonnegative int capacity, @Nonnegative int maxReceive,
+	                            @Nonnegative int maxExtract, @Nonnegative int energy) {
+		int oldEnergy = this.energy;
+		int oldCapacity = this.capacity;
+		boolean limitsChanged = this.maxReceive != maxReceive || this.maxExtract != maxExtract;
+		this.capacity = capacity;
+		this.maxReceive = maxReceive;
+		this.maxExtract = maxExtract;
+		this.energy = energy;
+		onChanged(oldEnergy, oldCapacity, limitsChanged, EnergyChangeCause.SET_ALL);
+	}
+
+	/**
+	 * 当能量变化时调用，并在数值真正变化时通知 {@link IEnergyChangeListener}
+	 *
+	 * @param oldEnergy     旧能量值
+	 * @param oldCapacity   旧容量值
+	 * @param limitsChanged 传输上限是否变化
+	 * @param cause         变化原因
+	 */
+	protected void onChanged(int oldEnergy, int oldCapacity, boolean limitsChanged, EnergyChangeCause cause) {
+		boolean changed = limitsChanged || oldEnergy != energy || oldCapacity != capacity;
+		if (changed) version++;
+		if (coalesceChanges) {
+			limitsPending |= limitsChanged;
+		} else if (changed && listeners.length != 0) {
+			fireListeners(oldEnergy, oldCapacity, cause);
+		}
+		onChanged();
+	}
+
+	private void fireListeners(int oldEnergy, int oldCapacity, EnergyChangeCause cause) {
+		for (IEnergyChangeListener listener : listeners) {
+			listener.onEnergyChanged(oldEnergy, energy, oldCapacity, capacity, cause);
+		}
+	}
+
+	/**
+	 * 获取版本号，能量、容量或传输上限真正变化时递增
+	 * <br>
+	 * 按速率被动变化能量的子类（如 {@link LazyModEnergyStorage}）需要重写本方法并通过 {@link #advanceVersion(long)} 反映被动变化
+	 *
+	 * @return 版本号
+	 */
+	@Override
+	public long version() {
+		return version;
+	}
+
+	/**
+	 * 增大版本号，用于子类中不经过 {@link #onChanged(int, int, boolean, EnergyChangeCause)} 的变化
+	 *
+	 * @param amount 增加量
+	 */
+	protected void advanceVersion(long amount) {
+		version += amount;
+	}
+
+	/**
+	 * 添加能量变化监听器
+	 *
+	 * @param listener 能量变化监听器
+	 */
+	public void addListener(IEnergyChangeListener listener) {
+		IEnergyChangeListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+		copy[listeners.length] = listener;
+		listeners = copy;
+	}
+
+	/**
+	 * 移除能量变化监听器
+	 *
+	 * @param listener 能量变化监听器
+	 * @return 是否移除成功
+	 */
+	public boolean removeListener(IEnergyChangeListener listener) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				IEnergyChangeListener[] copy = new IEnergyChangeListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, copy, 0, i);
+				System.arraycopy(listeners, i + 1, copy, i, copy.length - i);
+				listeners = copy.length == 0 ? NO_LISTENERS : copy;
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * 当能量变化时调用
 	 */
 	public void onChanged() {
+		if (wakeTickets != null) wakeTickets.wakeAll();
+		if (coalesceChanges) {
+			if (!changePending) {
+				changePending = true;
+				if (flushTask == null) flushTask = this::flushChanges;
+				EnergyTickScheduler.schedule(flushTask);
+			}
+			return;
+		}
 		if (onContentsChanged != null) onContentsChanged.onEnergyChanged();
 	}
 
+	/**
+	 * 立即发送合并的变化通知
+	 */
+	public void flushChanges() {
+		if (!changePending) {
+			return;
+		}
+		changePending = false;
+		int oldEnergy = notifiedEnergy;
+		int oldCapacity = notifiedCapacity;
+		boolean limitsChanged = limitsPending;
+		notifiedEnergy = energy;
+		notifiedCapacity = capacity;
+		limitsPending = false;
+		if (listeners.length != 0 && (limitsChanged || oldEnergy != energy || oldCapacity != capacity)) {
+			fireListeners(oldEnergy, oldCapacity, EnergyChangeCause.COALESCED);
+		}
+		if (onContentsChanged != null) onContentsChanged.onEnergyChanged(oldEnergy, energy, oldCapacity, capacity);
+	}
+
+	/**
+	 * 登记休眠凭证，能量或传输上限变化时唤醒
+	 *
+	 * @param ticket 休眠凭证
+	 */
+	@Override
+	public void addWakeTicket(EnergyWakeTicket ticket) {
+		if (wakeTickets == null) wakeTickets = new EnergyWakeTicket.Holder();
+		wakeTickets.add(ticket);
+	}
+
+	/**
+	 * 设置吞吐统计，为 null 时关闭统计
+	 * <br>
+	 * 统计记录通过 {@link #receiveEnergy(int, boolean)}、{@link #extractEnergy(int, boolean)}
+	 * 与事务提交（{@link #applyEnergyDelta(long)}）传输的能量，不记录 {@link #setEnergy(int)}
+	 *
+	 * @param metrics 吞吐统计
+	 */
+	public void setMetrics(@Nullable EnergyThroughputMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * 获取吞吐统计
+	 *
+	 * @return 吞吐统计，未开启时返回 null
+	 */
+	@Nullable
+	public EnergyThroughputMetrics getMetrics() {
+		return metrics;
+	}
+
 	/**
 	 * 当能量加载时调用
 	 */
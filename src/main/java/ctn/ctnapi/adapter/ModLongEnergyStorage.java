@@ -0,0 +1,323 @@
+package ctn.ctnapi.adapter;
+
+import ctn.ctnapi.capability.EnergyWakeTicket;
+import ctn.ctnapi.capability.IEnergyStorageModify;
+import ctn.ctnapi.capability.IEnergyWakeSource;
+import ctn.ctnapi.capability.IModLongEnergyStorage;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.neoforged.neoforge.common.util.INBTSerializable;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * 64位模组能量存储适配器类
+ * 以 long 保存能量、容量与传输上限，适用于容量超过 {@link Integer#MAX_VALUE} 的大型储能方块。
+ * <br>
+ * 通过 int 接口访问时数值会被截断，读写 long 方法可获得完整数值。
+ */
+public class ModLongEnergyStorage implements IModLongEnergyStorage, IEnergyWakeSource, INBTSerializable<Tag> {
+	@Nullable
+	protected IEnergyStorageModify onContentsChanged;
+	protected long energy;
+	protected long capacity;
+	protected long maxReceive;
+	protected long maxExtract;
+	@Nullable
+	private EnergyWakeTicket.Holder wakeTickets;
+
+	/**
+	 * 构造函数，使用指定容量创建能量存储
+	 *
+	 * @param capacity 能量存储容量
+	 */
+	public ModLongEnergyStorage(long capacity) {
+		this(capacity, capacity, capacity, 0);
+	}
+
+	/**
+	 * 构造函数，使用指定容量、最大接收量和最大提取量创建能量存储
+	 *
+	 * @param capacity   能量存储容量
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 */
+	public ModLongEnergyStorage(long capacity, long maxReceive, long maxExtract) {
+		this(capacity, maxReceive, maxExtract, 0);
+	}
+
+	/**
+	 * 构造函数，使用指定容量、最大接收量、最大提取量和初始能量创建能量存储
+	 *
+	 * @param capacity   能量存储容量
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @param energy     初始能量值
+	 */
+	public ModLongEnergyStorage(long capacity, long maxReceive, long maxExtract, long energy) {
+		this.capacity = capacity;
+		this.maxReceive = maxReceive;
+		this.maxExtract = maxExtract;
+		this.energy = Math.max(0, Math.min(capacity, energy));
+	}
+
+	/**
+	 * 获取存储的能量值
+	 *
+	 * @return 能量值
+	 */
+	@Override
+	public long getEnergyStoredLong() {
+		return energy;
+	}
+
+	/**
+	 * 设置存储的能量值
+	 *
+	 * @param energy 能量值
+	 */
+	@Override
+	public void setEnergyLong(@Nonnegative long energy) {
+		this.energy = energy;
+		onChanged();
+	}
+
+	/**
+	 * 获取最大能量存储容量
+	 *
+	 * @return 容量值
+	 */
+	@Override
+	public long getMaxEnergyStoredLong() {
+		return capacity;
+	}
+
+	/**
+	 * 设置最大能量存储容量
+	 *
+	 * @param capacity 容量值
+	 */
+	@Override
+	public void setMaxEnergyStoredLong(@Nonnegative long capacity) {
+		this.capacity = capacity;
+		onChanged();
+	}
+
+	/**
+	 * 获取最大能量接收量
+	 *
+	 * @return 最大能量接收量
+	 */
+	@Override
+	public long getMaxReceiveLong() {
+		return maxReceive;
+	}
+
+	/**
+	 * 设置最大能量接收量
+	 *
+	 * @param maxReceive 最大接收量
+	 */
+	@Override
+	public void setMaxReceiveLong(@Nonnegative long maxReceive) {
+		this.maxReceive = maxReceive;
+		onChanged();
+	}
+
+	/**
+	 * 获取最大能量提取量
+	 *
+	 * @return 最大能量提取量
+	 */
+	@Override
+	public long getMaxExtractLong() {
+		return maxExtract;
+	}
+
+	/**
+	 * 设置最大能量提取量
+	 *
+	 * @param maxExtract 最大提取量
+	 */
+	@Override
+	public void setMaxExtractLong(@Nonnegative long maxExtract) {
+		this.maxExtract = maxExtract;
+		onChanged();
+	}
+
+	/**
+	 * 设置所有能量存储参数，只触发一次变化通知
+	 *
+	 * @param capacity   容量值
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @param energy     能量值
+	 */
+	@Override
+	public void setEnergyStoredLong(@Nonnegative long capacity, @Nonnegative long maxReceive,
+	                                @Nonnegative long maxExtract, @Nonnegative long energy) {
+		this.capacity = capacity;
+		this.maxReceive = maxReceive;
+		this.maxExtract = maxExtract;
+		this.energy = energy;
+		onChanged();
+	}
+
+	/**
+	 * 接收能量
+	 *
+	 * @param toReceive 要接收的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际接收的能量值
+	 */
+	@Override
+	public long receiveEnergyLong(long toReceive, boolean simulate) {
+		if (!canReceive() || toReceive <= 0) {
+			return 0;
+		}
+		long energyReceived = Math.max(0, Math.min(capacity - energy, Math.min(maxReceive, toReceive)));
+		if (!simulate && energyReceived > 0) {
+			energy += energyReceived;
+			onChanged();
+		}
+		return energyReceived;
+	}
+
+	/**
+	 * 提取能量
+	 *
+	 * @param toExtract 要提取的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际提取的能量值
+	 */
+	@Override
+	public long extractEnergyLong(long toExtract, boolean simulate) {
+		if (!canExtract() || toExtract <= 0) {
+			return 0;
+		}
+		long energyExtracted = Math.min(energy, Math.min(maxExtract, toExtract));
+		if (!simulate && energyExtracted > 0) {
+			energy -= energyExtracted;
+			onChanged();
+		}
+		return energyExtracted;
+	}
+
+	/**
+	 * 写入事务提交的能量变化，结果不在 [0, 容量] 范围内时不写入
+	 *
+	 * @param delta 能量变化，正数为接收，负数为提取
+	 * @return 是否写入
+	 */
+	@Override
+	public boolean applyEnergyDelta(long delta) {
+		long energy = this.energy + delta;
+		if (energy < 0 || energy > capacity) {
+			return false;
+		}
+		if (delta != 0) {
+			this.energy = energy;
+			onChanged();
+		}
+		return true;
+	}
+
+	/**
+	 * 序列化为NBT标签
+	 *
+	 * @param provider 数据提供者
+	 * @return NBT标签
+	 */
+	@Override
+	@Nonnull
+	public Tag serializeNBT(HolderLookup.Provider provider) {
+		CompoundTag nbt = new CompoundTag(4);
+		nbt.putLong("energy", energy);
+		nbt.putLong("capacity", capacity);
+		nbt.putLong("maxReceive", maxReceive);
+		nbt.putLong("maxExtract", maxExtract);
+		return nbt;
+	}
+
+	/**
+	 * 从NBT标签反序列化
+	 * <br>
+	 * {@link CompoundTag#getLong(String)} 同样可以读取 {@link ModEnergyStorage} 写入的 int 数据
+	 *
+	 * @param provider 数据提供者
+	 * @param nbt      NBT标签
+	 */
+	@Override
+	public void deserializeNBT(HolderLookup.Provider provider, Tag nbt) {
+		if (!(nbt instanceof CompoundTag compoundTag)) {
+			throw new IllegalArgumentException("Can not deserialize to an instance that isn't the " +
+					"default implementation");
+		}
+		energy = compoundTag.getLong("energy");
+		capacity = compoundTag.getLong("capacity");
+		maxReceive = compoundTag.getLong("maxReceive");
+		maxExtract = compoundTag.getLong("maxExtract");
+		onLoad();
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "LongEnergyStorage:{" +
+				"energy=" + energy +
+				", capacity=" + capacity +
+				", maxReceive=" + maxReceive +
+				", maxExtract=" + maxExtract + "}";
+	}
+
+	/**
+	 * 获取能量存储百分比
+	 *
+	 * @return 能量存储百分比
+	 */
+	public int getPercentage() {
+		return capacity <= 0 ? 0 : (int) Math.round((double) energy / capacity * 100.0);
+	}
+
+	/**
+	 * 设置能量变化监听器
+	 *
+	 * @param onContentsChanged 能量变化监听器
+	 */
+	public void setOn(IEnergyStorageModify onContentsChanged) {
+		this.onContentsChanged = onContentsChanged;
+	}
+
+	/**
+	 * 当能量变化时调用
+	 */
+	public void onChanged() {
+		if (wakeTickets != null) wakeTickets.wakeAll();
+		if (onContentsChanged != null) onContentsChanged.onEnergyChanged();
+	}
+
+	/**
+	 * 登记休眠凭证，能量或传输上限变化时唤醒
+	 *
+	 * @param ticket 休眠凭证
+	 */
+	@Override
+	public void addWakeTicket(EnergyWakeTicket ticket) {
+		if (wakeTickets == null) wakeTickets = new EnergyWakeTicket.Holder();
+		wakeTickets.add(ticket);
+	}
+
+	/**
+	 * 当能量加载时调用
+	 */
+	public void onLoad() {
+		if (onContentsChanged != null) onContentsChanged.onEnergyLoad();
+	}
+}
@@ -104,8 +104,10 @@ public class NonEmptyItemList extends NonNullList<ItemStack> {
 			index = 0;
 		}
 		ItemStack itemStack = super.set(index, value);
-		add(0, ItemStack.EMPTY);
-		update();
+		// 在非首位放入非空物品不会破坏约束，无需整理
+		if (index == 0 || value.isEmpty()) {
+			update();
+		}
 		return itemStack;
 	}
 
@@ -121,20 +123,35 @@ public class NonEmptyItemList extends NonNullList<ItemStack> {
 			index = 0;
 		}
 		super.add(index, value);
-		update();
+		if (index == 0 || value.isEmpty()) {
+			update();
+		}
 	}
 
 	/**
 	 * 更新列表，确保不包含空物品栈
+	 * <br>
+	 * 将非空物品向前压缩后从末尾截断，时间复杂度为 O(n)。
+	 * 需要频繁增删且不要求顺序时请使用 {@link CompactItemList}
 	 */
 	public void update() {
-		if (!get(0).isEmpty()) {
-			add(0, ItemStack.EMPTY);
+		if (isEmpty() || !get(0).isEmpty()) {
+			super.add(0, ItemStack.EMPTY);
 		}
-		for (int i = size() - 1; i >= 1; i--) {
-			if (get(i).isEmpty()) {
-				remove(i);
+		int size = size();
+		int write = 1;
+		for (int read = 1; read < size; read++) {
+			ItemStack itemStack = get(read);
+			if (itemStack.isEmpty()) {
+				continue;
 			}
+			if (write != read) {
+				super.set(write, itemStack);
+			}
+			write++;
+		}
+		for (int i = size - 1; i >= write; i--) {
+			remove(i);
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package ctn.ctnapi.adapter;
+
+import ctn.ctnapi.capability.IModEnergyStorage;
+
+/**
+ * 虚空能量存储适配器类
+ * 接收任意能量并直接销毁，能量值始终为 0，用于创造模式的能量汇。
+ * 没有任何状态，请使用共享的 {@link #INSTANCE}
+ */
+public final class VoidModEnergyStorage implements IModEnergyStorage {
+	/**
+	 * 共享的虚空能量存储
+	 */
+	public static final VoidModEnergyStorage INSTANCE = new VoidModEnergyStorage();
+
+	private VoidModEnergyStorage() {
+	}
+
+	/**
+	 * 设置能量值（无操作）
+	 *
+	 * @param energy 能量值
+	 */
+	@Override
+	public void setEnergy(int energy) {
+	}
+
+	/**
+	 * 设置最大能量存储值（无操作）
+	 *
+	 * @param capacity 容量值
+	 */
+	@Override
+	public void setMaxEnergyStored(int capacity) {
+	}
+
+	/**
+	 * 获取最大能量提取值
+	 *
+	 * @return 0 (不提供能量)
+	 */
+	@Override
+	public int getMaxExtract() {
+		return 0;
+	}
+
+	/**
+	 * 设置最大能量提取值（无操作）
+	 *
+	 * @param maxExtract 最大提取值
+	 */
+	@Override
+	public void setMaxExtract(int maxExtract) {
+	}
+
+	/**
+	 * 获取最大能量接收值
+	 *
+	 * @return Integer.MAX_VALUE (无限接收)
+	 */
+	@Override
+	public int getMaxReceive() {
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * 设置最大能量接收值（无操作）
+	 *
+	 * @param maxReceive 最大接收值
+	 */
+	@Override
+	public void setMaxReceive(int maxReceive) {
+	}
+
+	/**
+	 * 接收能量并销毁
+	 *
+	 * @param toReceive 要接收的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际接收的能量值
+	 */
+	@Override
+	public int receiveEnergy(int toReceive, boolean simulate) {
+		return Math.max(0, toReceive);
+	}
+
+	/**
+	 * 提取能量
+	 *
+	 * @param toExtract 要提取的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 0 (不提供能量)
+	 */
+	@Override
+	public int extractEnergy(int toExtract, boolean simulate) {
+		return 0;
+	}
+
+	/**
+	 * 获取存储的能量值
+	 *
+	 * @return 0
+	 */
+	@Override
+	public int getEnergyStored() {
+		return 0;
+	}
+
+	/**
+	 * 获取最大能量存储值
+	 *
+	 * @return Integer.MAX_VALUE (无限容量)
+	 */
+	@Override
+	public int getMaxEnergyStored() {
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * 检查是否可以提取能量
+	 *
+	 * @return false (不能提取能量)
+	 */
+	@Override
+	public boolean canExtract() {
+		return false;
+	}
+
+	/**
+	 * 检查是否可以接收能量
+	 *
+	 * @return true (始终可以接收)
+	 */
+	@Override
+	public boolean canReceive() {
+		return true;
+	}
+
+	/**
+	 * 是否为无限能量汇
+	 *
+	 * @return true
+	 */
+	@Override
+	public boolean isInfiniteSink() {
+		return true;
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "VoidEnergyStorage:{}";
+	}
+}
@@ -0,0 +1,259 @@
+package ctn.ctnapi.capability;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.neoforged.neoforge.capabilities.BlockCapabilityCache;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.energy.IEnergyStorage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 能量能力缓存
+ * 基于 {@link BlockCapabilityCache} 缓存方块自身各面以及周围方块的能量接口，
+ * 由方块实体持有，在相邻方块变化时由 NeoForge 自动失效。
+ * <br>
+ * 命中时只读取数组，适合每刻都需要扫描相邻能量接口的方块实体使用。
+ * 应在方块实体的 {@code onLoad} 中创建（此时世界已设置）。
+ */
+public class EnergyCapabilityCache implements IEnergyWakeSource {
+	/**
+	 * 槽位数量（六个方向以及无方向）
+	 */
+	public static final int SIZE = 7;
+	/**
+	 * 无方向对应的槽位
+	 */
+	public static final int NULL_SIDE = 6;
+
+	private final ServerLevel level;
+	private final BlockPos pos;
+	private final BooleanSupplier isValid;
+	@SuppressWarnings("unchecked")
+	private final BlockCapabilityCache<IEnergyStorage, Direction>[] sideCaches = new BlockCapabilityCache[SIZE];
+	@SuppressWarnings("unchecked")
+	private final BlockCapabilityCache<IEnergyStorage, Direction>[] surroundingCaches = new BlockCapabilityCache[SIZE];
+	private final IEnergyStorage[] sideValues = new IEnergyStorage[SIZE];
+	private final IEnergyStorage[] surroundingValues = new IEnergyStorage[SIZE];
+	private final EnergyWakeTicket.Holder wakeTickets = new EnergyWakeTicket.Holder();
+	/**
+	 * 已解析的槽位位掩码
+	 */
+	private int sideResolved;
+	private int surroundingResolved;
+	private long hitCount;
+	private long missCount;
+	private long invalidationCount;
+
+	/**
+	 * 构造函数
+	 *
+	 * @param level   服务端世界
+	 * @param pos     中心坐标
+	 * @param isValid 缓存是否仍然有效（通常为方块实体未被移除）
+	 */
+	public EnergyCapabilityCache(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BooleanSupplier isValid) {
+		this.level = level;
+		this.pos = pos.immutable();
+		this.isValid = isValid;
+	}
+
+	/**
+	 * 为方块实体创建能量能力缓存
+	 *
+	 * @param blockEntity 方块实体
+	 * @return 能量能力缓存
+	 * @throws IllegalStateException 当方块实体不在服务端世界中时抛出
+	 */
+	public static EnergyCapabilityCache of(@NotNull BlockEntity blockEntity) {
+		if (!(blockEntity.getLevel() instanceof ServerLevel serverLevel)) {
+			throw new IllegalStateException("BlockEntity is not in a ServerLevel at " + blockEntity.getBlockPos());
+		}
+		return new EnergyCapabilityCache(serverLevel, blockEntity.getBlockPos(), () -> !blockEntity.isRemoved());
+	}
+
+	/**
+	 * 获取方向对应的槽位
+	 *
+	 * @param direction 方向，null 表示无方向
+	 * @return 槽位索引
+	 */
+	public static int indexOf(@Nullable Direction direction) {
+		return direction == null ? NULL_SIDE : direction.get3DDataValue();
+	}
+
+	/**
+	 * 获取方块自身指定面的能量接口
+	 * <br>
+	 * 等价于 {@code level.getCapability(Capabilities.EnergyStorage.BLOCK, pos, side)}
+	 *
+	 * @param side 方向，null 表示无方向
+	 * @return 能量接口
+	 */
+	@Nullable
+	public IEnergyStorage getEnergyStorage(@Nullable Direction side) {
+		int index = indexOf(side);
+		int bit = 1 << index;
+		if ((sideResolved & bit) != 0) {
+			hitCount++;
+			return sideValues[index];
+		}
+		missCount++;
+		var cache = sideCaches[index];
+		if (cache == null) {
+			cache = BlockCapabilityCache.create(Capabilities.EnergyStorage.BLOCK, level, pos, side,
+					isValid, () -> invalidateSide(index));
+			sideCaches[index] = cache;
+		}
+		IEnergyStorage value = cache.getCapability();
+		sideValues[index] = value;
+		sideResolved |= bit;
+		return value;
+	}
+
+	/**
+	 * 获取周围方块的对应方向的能量接口
+	 * <br>
+	 * 等价于 {@link ctn.ctnapi.util.EnergyUtil#getSurroundingEnergyDirectionStorage}
+	 *
+	 * @param direction 方向
+	 * @return 能量接口
+	 */
+	@Nullable
+	public IEnergyStorage getSurroundingEnergyStorage(@NotNull Direction direction) {
+		int index = direction.get3DDataValue();
+		int bit = 1 << index;
+		if ((surroundingResolved & bit) != 0) {
+			hitCount++;
+			return surroundingValues[index];
+		}
+		missCount++;
+		var cache = surroundingCaches[index];
+		if (cache == null) {
+			cache = BlockCapabilityCache.create(Capabilities.EnergyStorage.BLOCK, level,
+					pos.relative(direction.getOpposite(), 1), direction,
+					isValid, () -> invalidateSurrounding(index));
+			surroundingCaches[index] = cache;
+		}
+		IEnergyStorage value = cache.getCapability();
+		surroundingValues[index] = value;
+		surroundingResolved |= bit;
+		return value;
+	}
+
+	/**
+	 * 使所有缓存的能量接口失效
+	 */
+	public void invalidate() {
+		sideResolved = 0;
+		surroundingResolved = 0;
+		invalidationCount++;
+		wakeTickets.wakeAll();
+	}
+
+	/**
+	 * 使方块自身指定槽位失效
+	 *
+	 * @param index 槽位索引
+	 */
+	protected void invalidateSide(int index) {
+		sideResolved &= ~(1 << index);
+		sideValues[index] = null;
+		invalidationCount++;
+		wakeTickets.wakeAll();
+	}
+
+	/**
+	 * 使周围方块指定槽位失效
+	 *
+	 * @param index 槽位索引
+	 */
+	protected void invalidateSurrounding(int index) {
+		surroundingResolved &= ~(1 << index);
+		surroundingValues[index] = null;
+		invalidationCount++;
+		wakeTickets.wakeAll();
+	}
+
+	/**
+	 * 登记休眠凭证，任意能量接口失效时唤醒
+	 *
+	 * @param ticket 休眠凭证
+	 */
+	@Override
+	public void addWakeTicket(EnergyWakeTicket ticket) {
+		wakeTickets.add(ticket);
+	}
+
+	/**
+	 * 获取缓存命中次数
+	 *
+	 * @return 命中次数
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * 获取缓存未命中次数
+	 *
+	 * @return 未命中次数
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * 获取缓存失效次数
+	 *
+	 * @return 失效次数
+	 */
+	public long getInvalidationCount() {
+		return invalidationCount;
+	}
+
+	/**
+	 * 重置命中统计
+	 */
+	public void resetStatistics() {
+		hitCount = 0;
+		missCount = 0;
+		invalidationCount = 0;
+	}
+
+	/**
+	 * 获取世界
+	 *
+	 * @return 服务端世界
+	 */
+	public ServerLevel getLevel() {
+		return level;
+	}
+
+	/**
+	 * 获取中心坐标
+	 *
+	 * @return 中心坐标
+	 */
+	public BlockPos getPos() {
+		return pos;
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "EnergyCapabilityCache:{" +
+				"pos=" + pos +
+				", hit=" + hitCount +
+				", miss=" + missCount +
+				", invalidation=" + invalidationCount + "}";
+	}
+}
@@ -0,0 +1,35 @@
+package ctn.ctnapi.capability;
+
+/**
+ * 能量变化原因
+ */
+public enum EnergyChangeCause {
+	/**
+	 * 接收能量，包括事务提交的正变化量
+	 */
+	RECEIVE,
+	/**
+	 * 提取能量，包括事务提交的负变化量
+	 */
+	EXTRACT,
+	/**
+	 * 直接设置能量值
+	 */
+	SET_ENERGY,
+	/**
+	 * 设置容量
+	 */
+	SET_CAPACITY,
+	/**
+	 * 设置最大接收或提取量
+	 */
+	SET_LIMITS,
+	/**
+	 * 同时设置所有参数（如同步数据）
+	 */
+	SET_ALL,
+	/**
+	 * 合并通知，旧值为上一次通知时的值
+	 */
+	COALESCED
+}
@@ -0,0 +1,250 @@
+package ctn.ctnapi.capability;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.energy.IEnergyStorage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * 相邻能量接口快照
+ * 以方向为索引、固定7个槽位的可复用能量接口集合，
+ * 通过 {@link #update} 原地刷新，替代每次调用都新建映射的查询方法。
+ * <br>
+ * 槽位索引为 {@link Direction#get3DDataValue()}，无方向为 {@link EnergyCapabilityCache#NULL_SIDE}。
+ */
+public class EnergyNeighbors {
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	private final IEnergyStorage[] storages = new IEnergyStorage[EnergyCapabilityCache.SIZE];
+	/**
+	 * 刷新周围方块时复用的坐标，查询能力前需转换为不可变坐标
+	 */
+	private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+	/**
+	 * 可接收能量的槽位位掩码
+	 */
+	private int receivable;
+	/**
+	 * 可提取能量的槽位位掩码
+	 */
+	private int extractable;
+	private int count;
+
+	/**
+	 * 刷新为方块自身所有面的能量接口
+	 * <br>
+	 * 与 {@link ctn.ctnapi.util.EnergyUtil#getEnergyStorageAllCapabilities} 查询相同的能力
+	 *
+	 * @param level 世界
+	 * @param pos   方块位置
+	 * @return 自身
+	 */
+	public EnergyNeighbors update(@NotNull Level level, @NotNull BlockPos pos) {
+		clear();
+		put(EnergyCapabilityCache.NULL_SIDE, level.getCapability(Capabilities.EnergyStorage.BLOCK, pos, null));
+		for (Direction direction : DIRECTIONS) {
+			put(direction.get3DDataValue(), level.getCapability(Capabilities.EnergyStorage.BLOCK, pos, direction));
+		}
+		return this;
+	}
+
+	/**
+	 * 刷新为周围方块的对应方向的能量接口，无方向槽位为空
+	 * <br>
+	 * 与 {@link ctn.ctnapi.util.EnergyUtil#getSurroundingEnergyStorage} 查询相同的能力
+	 *
+	 * @param level 世界
+	 * @param pos   中心坐标
+	 * @return 自身
+	 */
+	public EnergyNeighbors updateSurrounding(@NotNull Level level, @NotNull BlockPos pos) {
+		clear();
+		for (Direction direction : DIRECTIONS) {
+			cursor.setWithOffset(pos, direction.getOpposite());
+			// 能力提供者可能保留传入的坐标，不能传入会被继续修改的可变坐标
+			put(direction.get3DDataValue(), level.getCapability(Capabilities.EnergyStorage.BLOCK, cursor.immutable(), direction));
+		}
+		return this;
+	}
+
+	/**
+	 * 从能量能力缓存刷新为方块自身所有面的能量接口
+	 *
+	 * @param cache 能量能力缓存
+	 * @return 自身
+	 */
+	public EnergyNeighbors update(@NotNull EnergyCapabilityCache cache) {
+		clear();
+		put(EnergyCapabilityCache.NULL_SIDE, cache.getEnergyStorage(null));
+		for (Direction direction : DIRECTIONS) {
+			put(direction.get3DDataValue(), cache.getEnergyStorage(direction));
+		}
+		return this;
+	}
+
+	/**
+	 * 从能量能力缓存刷新为周围方块的对应方向的能量接口
+	 *
+	 * @param cache 能量能力缓存
+	 * @return 自身
+	 */
+	public EnergyNeighbors updateSurrounding(@NotNull EnergyCapabilityCache cache) {
+		clear();
+		for (Direction direction : DIRECTIONS) {
+			put(direction.get3DDataValue(), cache.getSurroundingEnergyStorage(direction));
+		}
+		return this;
+	}
+
+	/**
+	 * 清空所有槽位
+	 */
+	public void clear() {
+		Arrays.fill(storages, null);
+		receivable = 0;
+		extractable = 0;
+		count = 0;
+	}
+
+	private void put(int index, @Nullable IEnergyStorage storage) {
+		storages[index] = storage;
+		if (storage == null) {
+			return;
+		}
+		count++;
+		if (storage.canReceive()) {
+			receivable |= 1 << index;
+		}
+		if (storage.canExtract()) {
+			extractable |= 1 << index;
+		}
+	}
+
+	/**
+	 * 获取指定方向的能量接口
+	 *
+	 * @param direction 方向，null 表示无方向
+	 * @return 能量接口
+	 */
+	@Nullable
+	public IEnergyStorage get(@Nullable Direction direction) {
+		return storages[EnergyCapabilityCache.indexOf(direction)];
+	}
+
+	/**
+	 * 获取指定槽位的能量接口
+	 *
+	 * @param index 槽位索引
+	 * @return 能量接口
+	 */
+	@Nullable
+	public IEnergyStorage get(int index) {
+		return storages[index];
+	}
+
+	/**
+	 * 获取指定方向可以接收能量的能量接口
+	 *
+	 * @param direction 方向，null 表示无方向
+	 * @return 能接收能量的能量接口
+	 */
+	@Nullable
+	public IEnergyStorage getReceivable(@Nullable Direction direction) {
+		int index = EnergyCapabilityCache.indexOf(direction);
+		return (receivable & 1 << index) != 0 ? storages[index] : null;
+	}
+
+	/**
+	 * 获取指定方向可以提取能量的能量接口
+	 *
+	 * @param direction 方向，null 表示无方向
+	 * @return 能提取能量的能量接口
+	 */
+	@Nullable
+	public IEnergyStorage getExtractable(@Nullable Direction direction) {
+		int index = EnergyCapabilityCache.indexOf(direction);
+		return (extractable & 1 << index) != 0 ? storages[index] : null;
+	}
+
+	/**
+	 * 获取可接收能量的槽位位掩码
+	 *
+	 * @return 位掩码
+	 */
+	public int getReceivableMask() {
+		return receivable;
+	}
+
+	/**
+	 * 获取可提取能量的槽位位掩码
+	 *
+	 * @return 位掩码
+	 */
+	public int getExtractableMask() {
+		return extractable;
+	}
+
+	/**
+	 * 获取非空槽位数量
+	 *
+	 * @return 数量
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * 是否没有任何能量接口
+	 *
+	 * @return 是否为空
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * 遍历所有非空槽位
+	 *
+	 * @param consumer 方向与能量接口，无方向时方向为 null
+	 */
+	public void forEach(BiConsumer<Direction, IEnergyStorage> consumer) {
+		for (int i = 0; i < EnergyCapabilityCache.SIZE; i++) {
+			IEnergyStorage storage = storages[i];
+			if (storage != null) {
+				consumer.accept(i == EnergyCapabilityCache.NULL_SIDE ? null : Direction.from3DDataValue(i), storage);
+			}
+		}
+	}
+
+	/**
+	 * 遍历所有可接收能量的槽位
+	 *
+	 * @param consumer 方向与能量接口，无方向时方向为 null
+	 */
+	public void forEachReceivable(BiConsumer<Direction, IEnergyStorage> consumer) {
+		for (int i = 0; i < EnergyCapabilityCache.SIZE; i++) {
+			if ((receivable & 1 << i) != 0) {
+				consumer.accept(i == EnergyCapabilityCache.NULL_SIDE ? null : Direction.from3DDataValue(i), storages[i]);
+			}
+		}
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "EnergyNeighbors:{" +
+				"size=" + count +
+				", receivable=" + Integer.toBinaryString(receivable) +
+				", extractable=" + Integer.toBinaryString(extractable) + "}";
+	}
+}
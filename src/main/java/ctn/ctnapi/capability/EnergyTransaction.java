@@ -0,0 +1,262 @@
+package ctn.ctnapi.capability;
+
+import ctn.ctnapi.CtnApiMain;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * 能量事务
+ * 在事务中暂存对多个能量存储的修改，提交时统一校验并一次性写入，放弃时全部丢弃。
+ * <br>
+ * 支持嵌套：子事务提交时并入父事务，父事务提交时才真正写入。
+ * 子事务打开期间不能操作父事务。事务只能在创建它的线程中使用。
+ * <pre>{@code
+ * try (EnergyTransaction transaction = EnergyTransaction.open()) {
+ *     int received = receive.receiveEnergy(extract.getEnergyStored(), transaction);
+ *     extract.extractEnergy(received, transaction);
+ *     transaction.commit();
+ * }
+ * }</pre>
+ */
+public final class EnergyTransaction implements AutoCloseable {
+	/**
+	 * 类是否在声明接收与提取的类或其子类中重写了写入变化的方法
+	 */
+	private static final ClassValue<Boolean> TRANSACTIONAL = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				Class<?> apply = type.getMethod("applyEnergyDelta", long.class).getDeclaringClass();
+				return !apply.isInterface() &&
+						type.getMethod("receiveEnergy", int.class, boolean.class).getDeclaringClass().isAssignableFrom(apply) &&
+						type.getMethod("extractEnergy", int.class, boolean.class).getDeclaringClass().isAssignableFrom(apply);
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
+	@Nullable
+	private final EnergyTransaction parent;
+	private IModEnergyStorage[] participants = new IModEnergyStorage[4];
+	private long[] deltas = new long[4];
+	private int count;
+	@Nullable
+	private EnergyTransaction child;
+	private boolean closed;
+
+	private EnergyTransaction(@Nullable EnergyTransaction parent) {
+		this.parent = parent;
+	}
+
+	/**
+	 * 打开一个顶层事务
+	 *
+	 * @return 事务
+	 */
+	public static EnergyTransaction open() {
+		return new EnergyTransaction(null);
+	}
+
+	/**
+	 * 打开一个嵌套事务
+	 *
+	 * @return 子事务
+	 * @throws IllegalStateException 当事务已关闭或已有打开的子事务时抛出
+	 */
+	public EnergyTransaction openNested() {
+		checkUsable();
+		child = new EnergyTransaction(this);
+		return child;
+	}
+
+	/**
+	 * 获取能量存储在本事务中的能量值（包括所有父事务暂存的修改）
+	 *
+	 * @param storage 能量存储
+	 * @return 能量值
+	 */
+	public int getEnergyStored(@NotNull IModEnergyStorage storage) {
+		return (int) Math.min(Integer.MAX_VALUE, getEnergyStoredLong(storage));
+	}
+
+	/**
+	 * 获取能量存储在本事务中的 long 能量值（包括所有父事务暂存的修改）
+	 *
+	 * @param storage 能量存储
+	 * @return 能量值
+	 */
+	public long getEnergyStoredLong(@NotNull IModEnergyStorage storage) {
+		long energy = energyOf(storage);
+		for (EnergyTransaction transaction = this; transaction != null; transaction = transaction.parent) {
+			int index = transaction.indexOf(storage);
+			if (index >= 0) {
+				energy += transaction.deltas[index];
+			}
+		}
+		return Math.max(0, energy);
+	}
+
+	/**
+	 * 暂存能量变化
+	 *
+	 * @param storage 能量存储
+	 * @param delta   能量变化，正数为接收，负数为提取
+	 * @throws IllegalStateException 当事务已关闭或已有打开的子事务时抛出
+	 */
+	public void stage(@NotNull IModEnergyStorage storage, long delta) {
+		checkUsable();
+		int index = indexOf(storage);
+		if (index < 0) {
+			if (count == participants.length) {
+				participants = Arrays.copyOf(participants, count * 2);
+				deltas = Arrays.copyOf(deltas, count * 2);
+			}
+			index = count++;
+			participants[index] = storage;
+			deltas[index] = 0;
+		}
+		deltas[index] += delta;
+	}
+
+	/**
+	 * 提交事务
+	 * <br>
+	 * 子事务并入父事务；顶层事务先校验所有能量存储的结果都在 [0, 容量] 范围内，
+	 * 校验通过后对每个能量存储只调用一次 {@link IModEnergyStorage#applyEnergyDelta(long)} 写入变化量，否则全部放弃。
+	 * 写入期间某个能量存储被其他线程修改而拒绝写入时，已写入的变化会被撤销。
+	 *
+	 * @return 是否成功提交
+	 * @throws IllegalStateException 当事务已关闭或已有打开的子事务时抛出
+	 */
+	public boolean commit() {
+		checkUsable();
+		try {
+			if (parent != null) {
+				parent.child = null;
+				for (int i = 0; i < count; i++) {
+					if (deltas[i] != 0) {
+						parent.stage(participants[i], deltas[i]);
+					}
+				}
+				return true;
+			}
+			for (int i = 0; i < count; i++) {
+				long energy = energyOf(participants[i]) + deltas[i];
+				if (energy < 0 || energy > capacityOf(participants[i])) {
+					return false;
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				if (deltas[i] != 0 && !participants[i].applyEnergyDelta(deltas[i])) {
+					rollback(i);
+					return false;
+				}
+			}
+			return true;
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * 撤销已写入的变化
+	 *
+	 * @param applied 已写入的参与者数量
+	 */
+	private void rollback(int applied) {
+		for (int i = applied - 1; i >= 0; i--) {
+			if (deltas[i] != 0 && !participants[i].applyEnergyDelta(-deltas[i])) {
+				CtnApiMain.LOGGER.error("Failed to roll back energy transaction, {} energy lost in {}", deltas[i], participants[i]);
+			}
+		}
+	}
+
+	/**
+	 * 放弃事务中暂存的所有修改
+	 */
+	public void abort() {
+		close();
+	}
+
+	/**
+	 * 关闭事务，未提交的修改将被丢弃
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		if (child != null) {
+			child.close();
+		}
+		closed = true;
+		Arrays.fill(participants, 0, count, null);
+		count = 0;
+		if (parent != null && parent.child == this) {
+			parent.child = null;
+		}
+	}
+
+	/**
+	 * 事务是否已关闭
+	 *
+	 * @return 是否已关闭
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * 获取父事务
+	 *
+	 * @return 父事务，顶层事务为 null
+	 */
+	@Nullable
+	public EnergyTransaction getParent() {
+		return parent;
+	}
+
+	/**
+	 * 能量存储是否可以安全地参与事务
+	 * <br>
+	 * 要求 {@link IModEnergyStorage#applyEnergyDelta(long)} 与 {@link IModEnergyStorage#receiveEnergy(int, boolean)}、
+	 * {@link IModEnergyStorage#extractEnergy(int, boolean)} 在同一个类或其子类中声明，
+	 * 否则子类对接收与提取的重写（统计、监听器、原子操作等）会在事务提交时被跳过
+	 *
+	 * @param storage 能量存储
+	 * @return 是否可以参与事务
+	 */
+	public static boolean isTransactional(@NotNull IModEnergyStorage storage) {
+		return TRANSACTIONAL.get(storage.getClass());
+	}
+
+	private static long energyOf(IModEnergyStorage storage) {
+		return storage instanceof IModLongEnergyStorage longStorage ?
+				longStorage.getEnergyStoredLong() : storage.getEnergyStored();
+	}
+
+	private static long capacityOf(IModEnergyStorage storage) {
+		return storage instanceof IModLongEnergyStorage longStorage ?
+				longStorage.getMaxEnergyStoredLong() : storage.getMaxEnergyStored();
+	}
+
+	private int indexOf(IModEnergyStorage storage) {
+		for (int i = 0; i < count; i++) {
+			if (participants[i] == storage) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void checkUsable() {
+		if (closed) {
+			throw new IllegalStateException("EnergyTransaction is already closed");
+		}
+		if (child != null) {
+			throw new IllegalStateException("EnergyTransaction has an open nested transaction");
+		}
+	}
+}
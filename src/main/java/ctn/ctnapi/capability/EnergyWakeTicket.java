@@ -0,0 +1,136 @@
+package ctn.ctnapi.capability;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * 能量休眠凭证
+ * 能量已满且无处输出、或已空且无处输入的机器可以进入休眠，
+ * 并登记到自身及相邻的 {@link IEnergyWakeSource} 上，任意一个发生变化时被唤醒。
+ * <pre>{@code
+ * if (ticket.isSleeping()) return;
+ * if (storage.getEnergyStored() >= storage.getMaxEnergyStored() && neighbors.getReceivableMask() == 0) {
+ *     ticket.sleep().watch(storage).watch(cache).watch(neighbors);
+ * }
+ * }</pre>
+ */
+public final class EnergyWakeTicket {
+	private final IEnergyStorageModify owner;
+	private boolean sleeping;
+
+	/**
+	 * 构造函数
+	 *
+	 * @param owner 被唤醒时通知的对象
+	 */
+	public EnergyWakeTicket(IEnergyStorageModify owner) {
+		this.owner = owner;
+	}
+
+	/**
+	 * 进入休眠
+	 *
+	 * @return 自身
+	 */
+	public EnergyWakeTicket sleep() {
+		sleeping = true;
+		return this;
+	}
+
+	/**
+	 * 登记到唤醒源，不是唤醒源的对象会被忽略
+	 *
+	 * @param source 唤醒源
+	 * @return 自身
+	 */
+	public EnergyWakeTicket watch(@Nullable Object source) {
+		if (source instanceof IEnergyWakeSource wakeSource) {
+			wakeSource.addWakeTicket(this);
+		}
+		return this;
+	}
+
+	/**
+	 * 登记到所有相邻的能量接口
+	 *
+	 * @param neighbors 相邻能量接口快照
+	 * @return 自身
+	 */
+	public EnergyWakeTicket watch(EnergyNeighbors neighbors) {
+		for (int i = 0; i < EnergyCapabilityCache.SIZE; i++) {
+			watch(neighbors.get(i));
+		}
+		return this;
+	}
+
+	/**
+	 * 唤醒，休眠中时调用 {@link IEnergyStorageModify#onEnergyWake()}
+	 */
+	public void wake() {
+		if (!sleeping) {
+			return;
+		}
+		sleeping = false;
+		owner.onEnergyWake();
+	}
+
+	/**
+	 * 是否在休眠中
+	 *
+	 * @return 是否在休眠中
+	 */
+	public boolean isSleeping() {
+		return sleeping;
+	}
+
+	/**
+	 * 唤醒源持有的凭证集合，唤醒后清空
+	 */
+	public static final class Holder {
+		private EnergyWakeTicket[] tickets = new EnergyWakeTicket[2];
+		private int size;
+
+		/**
+		 * 添加凭证，已存在时忽略
+		 *
+		 * @param ticket 休眠凭证
+		 */
+		public void add(EnergyWakeTicket ticket) {
+			for (int i = 0; i < size; i++) {
+				if (tickets[i] == ticket) {
+					return;
+				}
+			}
+			if (size == tickets.length) {
+				tickets = Arrays.copyOf(tickets, size * 2);
+			}
+			tickets[size++] = ticket;
+		}
+
+		/**
+		 * 唤醒并移除所有凭证
+		 */
+		public void wakeAll() {
+			if (size == 0) {
+				return;
+			}
+			int count = size;
+			EnergyWakeTicket[] waking = tickets;
+			tickets = new EnergyWakeTicket[Math.max(2, count)];
+			size = 0;
+			for (int i = 0; i < count; i++) {
+				waking[i].wake();
+			}
+		}
+
+		/**
+		 * 是否没有凭证
+		 *
+		 * @return 是否为空
+		 */
+		public boolean isEmpty() {
+			return size == 0;
+		}
+	}
+}
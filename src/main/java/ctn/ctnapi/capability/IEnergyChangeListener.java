@@ -0,0 +1,22 @@
+package ctn.ctnapi.capability;
+
+/**
+ * 能量变化监听器
+ * 与 {@link IEnergyStorageModify} 不同，变化时直接携带新旧值与原因，监听器无需重新读取能量存储，
+ * 可以只在跨越关心的阈值（如比较器输出）时处理。只在数值真正变化时调用。
+ */
+@FunctionalInterface
+public interface IEnergyChangeListener {
+	/**
+	 * 当能量或容量变化时调用
+	 * <br>
+	 * 只修改传输上限时新旧能量与容量相同，原因为 {@link EnergyChangeCause#SET_LIMITS}
+	 *
+	 * @param oldEnergy   旧能量值
+	 * @param newEnergy   新能量值
+	 * @param oldCapacity 旧容量值
+	 * @param newCapacity 新容量值
+	 * @param cause       变化原因
+	 */
+	void onEnergyChanged(int oldEnergy, int newEnergy, int oldCapacity, int newCapacity, EnergyChangeCause cause);
+}
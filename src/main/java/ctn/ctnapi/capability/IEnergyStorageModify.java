@@ -10,8 +10,32 @@ public interface IEnergyStorageModify {
 	 */
 	void onEnergyChanged();
 
+	/**
+	 * 合并模式下，每刻结束时最多调用一次
+	 * <br>
+	 * 旧值为上一次通知时的值，默认转发到 {@link #onEnergyChanged()}
+	 *
+	 * @param oldEnergy   上一次通知时的能量值
+	 * @param newEnergy   当前能量值
+	 * @param oldCapacity 上一次通知时的容量
+	 * @param newCapacity 当前容量
+	 */
+	default void onEnergyChanged(int oldEnergy, int newEnergy, int oldCapacity, int newCapacity) {
+		onEnergyChanged();
+	}
+
 	/**
 	 * 当能量加载时调用
 	 */
 	void onEnergyLoad();
+
+	/**
+	 * 当休眠凭证被唤醒时调用
+	 * <br>
+	 * 可能在能力失效的过程中调用，此时只应记录状态，不应查询能力
+	 *
+	 * @see EnergyWakeTicket
+	 */
+	default void onEnergyWake() {
+	}
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package ctn.ctnapi.capability;
+
+/**
+ * 能量唤醒源接口
+ * 在能量、接收能力或能量接口发生变化时唤醒登记在其上的休眠凭证
+ */
+public interface IEnergyWakeSource {
+	/**
+	 * 登记休眠凭证，下一次变化时唤醒并移除
+	 *
+	 * @param ticket 休眠凭证
+	 */
+	void addWakeTicket(EnergyWakeTicket ticket);
+}
@@ -1,5 +1,6 @@
 package ctn.ctnapi.capability;
 
+import net.minecraft.util.Mth;
 import net.neoforged.neoforge.energy.IEnergyStorage;
 import org.jetbrains.annotations.Nullable;
 
@@ -60,4 +61,85 @@ public interface IModEnergyStorage extends IEnergyStorage {
 	 * @param maxReceive 最大接收值
 	 */
 	void setMaxReceive(int maxReceive);
-}
\ No newline at end of file
+
+	/**
+	 * 获取版本号，每次能量、容量或传输上限真正变化时增大，
+	 * 只需比较一次版本号即可判断自上次读取后是否变化
+	 *
+	 * @return 版本号，不支持时返回 -1，此时需要比较各字段
+	 */
+	default long version() {
+		return -1;
+	}
+
+	/**
+	 * 是否为无限能量源，可以无需模拟直接提取任意能量
+	 *
+	 * @return 是否为无限能量源
+	 */
+	default boolean isInfiniteSource() {
+		return false;
+	}
+
+	/**
+	 * 是否为无限能量汇，可以无需模拟直接接收任意能量
+	 *
+	 * @return 是否为无限能量汇
+	 */
+	default boolean isInfiniteSink() {
+		return false;
+	}
+
+	/**
+	 * 写入事务提交的能量变化，结果不在 [0, 容量] 范围内时不写入
+	 * <br>
+	 * 默认实现读取能量后调用 {@link #setEnergy(int)}，不是原子操作。
+	 * 重写了 {@link #receiveEnergy(int, boolean)} 或 {@link #extractEnergy(int, boolean)} 的实现应同时重写本方法，
+	 * 否则 {@link ctn.ctnapi.util.EnergyUtil#controlEnergy(IEnergyStorage, IEnergyStorage)} 不会对其使用事务，
+	 * 参见 {@link EnergyTransaction#isTransactional(IModEnergyStorage)}
+	 *
+	 * @param delta 能量变化，正数为接收，负数为提取
+	 * @return 是否写入
+	 */
+	default boolean applyEnergyDelta(long delta) {
+		long energy = getEnergyStored() + delta;
+		if (energy < 0 || energy > getMaxEnergyStored()) {
+			return false;
+		}
+		setEnergy((int) energy);
+		return true;
+	}
+
+	/**
+	 * 在事务中接收能量，修改在事务提交时才会写入
+	 *
+	 * @param toReceive   要接收的能量值
+	 * @param transaction 能量事务
+	 * @return 实际接收的能量值
+	 */
+	default int receiveEnergy(int toReceive, EnergyTransaction transaction) {
+		if (!canReceive() || toReceive <= 0) {
+			return 0;
+		}
+		int energyReceived = Mth.clamp(getMaxEnergyStored() - transaction.getEnergyStored(this),
+				0, Math.min(getMaxReceive(), toReceive));
+		if (energyReceived > 0) transaction.stage(this, energyReceived);
+		return energyReceived;
+	}
+
+	/**
+	 * 在事务中提取能量，修改在事务提交时才会写入
+	 *
+	 * @param toExtract   要提取的能量值
+	 * @param transaction 能量事务
+	 * @return 实际提取的能量值
+	 */
+	default int extractEnergy(int toExtract, EnergyTransaction transaction) {
+		if (!canExtract() || toExtract <= 0) {
+			return 0;
+		}
+		int energyExtracted = Math.min(transaction.getEnergyStored(this), Math.min(getMaxExtract(), toExtract));
+		if (energyExtracted > 0) transaction.stage(this, -energyExtracted);
+		return energyExtracted;
+	}
+}
@@ -0,0 +1,295 @@
+package ctn.ctnapi.capability;
+
+import net.neoforged.neoforge.energy.IEnergyStorage;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 64位模组能量存储接口
+ * 以 long 保存能量与上限，int 版本的方法按 {@link Integer#MAX_VALUE} 截断后适配为 {@link IModEnergyStorage}
+ */
+public interface IModLongEnergyStorage extends IModEnergyStorage {
+	/**
+	 * 将IEnergyStorage转换为IModLongEnergyStorage
+	 *
+	 * @param i IEnergyStorage实例
+	 * @return IModLongEnergyStorage实例，如果转换失败则返回null
+	 */
+	@Nullable
+	static IModLongEnergyStorage of(IEnergyStorage i) {
+		return i instanceof IModLongEnergyStorage ? (IModLongEnergyStorage) i : null;
+	}
+
+	/**
+	 * 将 long 截断为 int
+	 *
+	 * @param value 值
+	 * @return 不超过 int 范围的值
+	 */
+	static int clampToInt(long value) {
+		return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+	}
+
+	/**
+	 * 获取存储的能量值
+	 *
+	 * @return 能量值
+	 */
+	long getEnergyStoredLong();
+
+	/**
+	 * 设置能量值
+	 *
+	 * @param energy 能量值
+	 */
+	void setEnergyLong(long energy);
+
+	/**
+	 * 获取最大能量存储值
+	 *
+	 * @return 容量值
+	 */
+	long getMaxEnergyStoredLong();
+
+	/**
+	 * 设置最大能量存储值
+	 *
+	 * @param capacity 容量值
+	 */
+	void setMaxEnergyStoredLong(long capacity);
+
+	/**
+	 * 获取最大能量接收值
+	 *
+	 * @return 最大能量接收值
+	 */
+	long getMaxReceiveLong();
+
+	/**
+	 * 设置最大能量接收值
+	 *
+	 * @param maxReceive 最大接收值
+	 */
+	void setMaxReceiveLong(long maxReceive);
+
+	/**
+	 * 获取最大能量提取值
+	 *
+	 * @return 最大能量提取值
+	 */
+	long getMaxExtractLong();
+
+	/**
+	 * 设置最大能量提取值
+	 *
+	 * @param maxExtract 最大提取值
+	 */
+	void setMaxExtractLong(long maxExtract);
+
+	/**
+	 * 接收能量
+	 *
+	 * @param toReceive 要接收的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际接收的能量值
+	 */
+	long receiveEnergyLong(long toReceive, boolean simulate);
+
+	/**
+	 * 提取能量
+	 *
+	 * @param toExtract 要提取的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际提取的能量值
+	 */
+	long extractEnergyLong(long toExtract, boolean simulate);
+
+	/**
+	 * 设置所有能量存储参数
+	 *
+	 * @param capacity   容量值
+	 * @param maxReceive 最大接收值
+	 * @param maxExtract 最大提取值
+	 * @param energy     能量值
+	 */
+	default void setEnergyStoredLong(long capacity, long maxReceive, long maxExtract, long energy) {
+		setMaxEnergyStoredLong(capacity);
+		setMaxReceiveLong(maxReceive);
+		setMaxExtractLong(maxExtract);
+		setEnergyLong(energy);
+	}
+
+	/**
+	 * 获取存储的能量值（截断为 int）
+	 *
+	 * @return 能量值
+	 */
+	@Override
+	default int getEnergyStored() {
+		return clampToInt(getEnergyStoredLong());
+	}
+
+	/**
+	 * 设置能量值
+	 *
+	 * @param energy 能量值
+	 */
+	@Override
+	default void setEnergy(int energy) {
+		setEnergyLong(energy);
+	}
+
+	/**
+	 * 获取最大能量存储值（截断为 int）
+	 *
+	 * @return 容量值
+	 */
+	@Override
+	default int getMaxEnergyStored() {
+		return clampToInt(getMaxEnergyStoredLong());
+	}
+
+	/**
+	 * 设置最大能量存储值
+	 *
+	 * @param capacity 容量值
+	 */
+	@Override
+	default void setMaxEnergyStored(int capacity) {
+		setMaxEnergyStoredLong(capacity);
+	}
+
+	/**
+	 * 获取最大能量接收值（截断为 int）
+	 *
+	 * @return 最大能量接收值
+	 */
+	@Override
+	default int getMaxReceive() {
+		return clampToInt(getMaxReceiveLong());
+	}
+
+	/**
+	 * 设置最大能量接收值
+	 *
+	 * @param maxReceive 最大接收值
+	 */
+	@Override
+	default void setMaxReceive(int maxReceive) {
+		setMaxReceiveLong(maxReceive);
+	}
+
+	/**
+	 * 获取最大能量提取值（截断为 int）
+	 *
+	 * @return 最大能量提取值
+	 */
+	@Override
+	default int getMaxExtract() {
+		return clampToInt(getMaxExtractLong());
+	}
+
+	/**
+	 * 设置最大能量提取值
+	 *
+	 * @param maxExtract 最大提取值
+	 */
+	@Override
+	default void setMaxExtract(int maxExtract) {
+		setMaxExtractLong(maxExtract);
+	}
+
+	/**
+	 * 接收能量
+	 *
+	 * @param toReceive 要接收的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际接收的能量值
+	 */
+	@Override
+	default int receiveEnergy(int toReceive, boolean simulate) {
+		return (int) receiveEnergyLong(toReceive, simulate);
+	}
+
+	/**
+	 * 提取能量
+	 *
+	 * @param toExtract 要提取的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际提取的能量值
+	 */
+	@Override
+	default int extractEnergy(int toExtract, boolean simulate) {
+		return (int) extractEnergyLong(toExtract, simulate);
+	}
+
+	/**
+	 * 检查是否可以接收能量
+	 *
+	 * @return 是否可以接收能量
+	 */
+	@Override
+	default boolean canReceive() {
+		return getMaxReceiveLong() > 0;
+	}
+
+	/**
+	 * 检查是否可以提取能量
+	 *
+	 * @return 是否可以提取能量
+	 */
+	@Override
+	default boolean canExtract() {
+		return getMaxExtractLong() > 0;
+	}
+
+	/**
+	 * 写入事务提交的能量变化，以 long 计算，结果不在 [0, 容量] 范围内时不写入
+	 *
+	 * @param delta 能量变化，正数为接收，负数为提取
+	 * @return 是否写入
+	 */
+	@Override
+	default boolean applyEnergyDelta(long delta) {
+		long energy = getEnergyStoredLong() + delta;
+		if (energy < 0 || energy > getMaxEnergyStoredLong()) {
+			return false;
+		}
+		setEnergyLong(energy);
+		return true;
+	}
+
+	/**
+	 * 在事务中接收能量，以 long 计算剩余空间
+	 *
+	 * @param toReceive   要接收的能量值
+	 * @param transaction 能量事务
+	 * @return 实际接收的能量值
+	 */
+	@Override
+	default int receiveEnergy(int toReceive, EnergyTransaction transaction) {
+		if (!canReceive() || toReceive <= 0) {
+			return 0;
+		}
+		long space = getMaxEnergyStoredLong() - transaction.getEnergyStoredLong(this);
+		int energyReceived = (int) Math.max(0, Math.min(space, Math.min(getMaxReceiveLong(), toReceive)));
+		if (energyReceived > 0) transaction.stage(this, energyReceived);
+		return energyReceived;
+	}
+
+	/**
+	 * 在事务中提取能量，以 long 计算可提取的能量
+	 *
+	 * @param toExtract   要提取的能量值
+	 * @param transaction 能量事务
+	 * @return 实际提取的能量值
+	 */
+	@Override
+	default int extractEnergy(int toExtract, EnergyTransaction transaction) {
+		if (!canExtract() || toExtract <= 0) {
+			return 0;
+		}
+		int energyExtracted = (int) Math.min(transaction.getEnergyStoredLong(this), Math.min(getMaxExtractLong(), toExtract));
+		if (energyExtracted > 0) transaction.stage(this, -energyExtracted);
+		return energyExtracted;
+	}
+}
@@ -14,6 +14,7 @@ import net.neoforged.neoforge.common.MutableDataComponentHolder;
 import net.neoforged.neoforge.energy.IEnergyStorage;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Objects;
 import java.util.function.Supplier;
 
 /**
@@ -53,6 +54,26 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 		parent.set(dataComponentType, data);
 	}
 
+	/**
+	 * 获取版本号，数据组件每次真正修改时增大，复制与编解码后不变
+	 *
+	 * @return 版本号，没有能量数据组件时为 0
+	 */
+	@Override
+	public long version() {
+		EnergyStorageData data = parent.get(dataComponentType);
+		return data == null ? 0 : data.version();
+	}
+
+	/**
+	 * 创建暂存视图，多次修改只在提交时写入一次数据组件
+	 *
+	 * @return 暂存的组件能量存储
+	 */
+	public StagedComponentEnergyStorage staged() {
+		return new StagedComponentEnergyStorage(parent, dataComponentType);
+	}
+
 	/**
 	 * 设置能量值
 	 *
@@ -60,7 +81,10 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 	 */
 	@Override
 	public void setEnergy(int energy) {
-		setEnergyStorageData(getEnergyStorageData().setEnergyStored(energy));
+		EnergyStorageData data = getEnergyStorageData();
+		if (data.energyStored() != energy) {
+			setEnergyStorageData(data.setEnergyStored(energy));
+		}
 	}
 
 	/**
@@ -80,7 +104,10 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 	 */
 	@Override
 	public void setMaxExtract(int maxExtract) {
-		setEnergyStorageData(getEnergyStorageData().setMaxExtract(maxExtract));
+		EnergyStorageData data = getEnergyStorageData();
+		if (data.maxExtract() != maxExtract) {
+			setEnergyStorageData(data.setMaxExtract(maxExtract));
+		}
 	}
 
 	/**
@@ -100,7 +127,10 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 	 */
 	@Override
 	public void setMaxReceive(int maxReceive) {
-		setEnergyStorageData(getEnergyStorageData().setMaxReceive(maxReceive));
+		EnergyStorageData data = getEnergyStorageData();
+		if (data.maxReceive() != maxReceive) {
+			setEnergyStorageData(data.setMaxReceive(maxReceive));
+		}
 	}
 
 	/**
@@ -112,7 +142,11 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 	 * @param energyStored    能量存储值
 	 */
 	public void setEnergyStored(int maxEnergyStored, int maxReceive, int maxExtract, int energyStored) {
-		setEnergyStorageData(getEnergyStorageData().setEnergyStored(maxEnergyStored, maxReceive, maxExtract, energyStored));
+		EnergyStorageData data = getEnergyStorageData();
+		if (data.maxEnergyStored() != maxEnergyStored || data.maxReceive() != maxReceive ||
+				data.maxExtract() != maxExtract || data.energyStored() != energyStored) {
+			setEnergyStorageData(data.setEnergyStored(maxEnergyStored, maxReceive, maxExtract, energyStored));
+		}
 	}
 
 	/**
@@ -154,6 +188,25 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 		return energyExtracted;
 	}
 
+	/**
+	 * 写入事务提交的能量变化，只读取与写入一次数据组件
+	 *
+	 * @param delta 能量变化，正数为接收，负数为提取
+	 * @return 是否写入
+	 */
+	@Override
+	public boolean applyEnergyDelta(long delta) {
+		EnergyStorageData data = getEnergyStorageData();
+		long energy = data.energyStored() + delta;
+		if (energy < 0 || energy > data.maxEnergyStored()) {
+			return false;
+		}
+		if (delta != 0) {
+			setEnergyStorageData(data.setEnergyStored((int) energy));
+		}
+		return true;
+	}
+
 	/**
 	 * 获取存储的能量值
 	 *
@@ -190,7 +243,10 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 	 */
 	@Override
 	public void setMaxEnergyStored(int capacity) {
-		setEnergyStorageData(getEnergyStorageData().setMaxEnergyStored(capacity));
+		EnergyStorageData data = getEnergyStorageData();
+		if (data.maxEnergyStored() != capacity) {
+			setEnergyStorageData(data.setMaxEnergyStored(capacity));
+		}
 	}
 
 	/**
@@ -216,9 +272,13 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 	/**
 	 * 能量存储数据记录类
 	 * 用于存储能量存储的相关数据
+	 * <br>
+	 * 版本号随数据一起序列化并参与相等比较，{@code setXxx} 方法返回版本号加 1 的新数据，
+	 * 因此只有真正的修改才会改变版本号，复制与编解码后保持不变。
+	 * 版本号不同的物品堆不会堆叠。
 	 */
 	public record EnergyStorageData(int maxEnergyStored, int maxReceive, int maxExtract,
-	                                int energyStored) {
+	                                int energyStored, long version) {
 		/**
 		 * 默认能量存储数据供应器
 		 */
@@ -232,6 +292,7 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 				ByteBufCodecs.VAR_INT, EnergyStorageData::maxReceive,
 				ByteBufCodecs.VAR_INT, EnergyStorageData::maxExtract,
 				ByteBufCodecs.VAR_INT, EnergyStorageData::energyStored,
+				ByteBufCodecs.VAR_LONG, EnergyStorageData::version,
 				EnergyStorageData::new);
 
 		/**
@@ -241,9 +302,22 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 						Codec.INT.fieldOf("maxEnergyStored").forGetter(EnergyStorageData::maxEnergyStored),
 						Codec.INT.fieldOf("maxReceive").forGetter(EnergyStorageData::maxReceive),
 						Codec.INT.fieldOf("maxExtract").forGetter(EnergyStorageData::maxExtract),
-						Codec.INT.fieldOf("energyStored").forGetter(EnergyStorageData::energyStored))
+						Codec.INT.fieldOf("energyStored").forGetter(EnergyStorageData::energyStored),
+						Codec.LONG.optionalFieldOf("version", 0L).forGetter(EnergyStorageData::version))
 				.apply(instance, EnergyStorageData::new));
 
+		/**
+		 * 构造函数，使用指定参数创建版本号为 0 的能量存储数据
+		 *
+		 * @param maxEnergyStored 最大能量存储值
+		 * @param maxReceive      最大接收值
+		 * @param maxExtract      最大提取值
+		 * @param energyStored    能量存储值
+		 */
+		public EnergyStorageData(int maxEnergyStored, int maxReceive, int maxExtract, int energyStored) {
+			this(maxEnergyStored, maxReceive, maxExtract, energyStored, 0);
+		}
+
 		/**
 		 * 构造函数，使用指定最大能量存储值创建能量存储数据
 		 *
@@ -301,6 +375,11 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 		@Override
 		public boolean equals(Object obj) {
 			return switch (obj) {
+				case EnergyStorageData data -> data.energyStored() == energyStored() &&
+						data.maxEnergyStored() == maxEnergyStored() &&
+						data.maxExtract() == maxExtract() &&
+						data.maxReceive() == maxReceive() &&
+						data.version() == version();
 				case ModEnergyStorage energyStorage -> energyStorage.getEnergyStored() == energyStored() &&
 						energyStorage.getMaxEnergyStored() == maxEnergyStored() &&
 						energyStorage.getMaxExtract() == maxExtract() &&
@@ -309,44 +388,54 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 			};
 		}
 
+		/**
+		 * 获取哈希码
+		 *
+		 * @return 哈希码
+		 */
+		@Override
+		public int hashCode() {
+			return Objects.hash(maxEnergyStored, maxReceive, maxExtract, energyStored, version);
+		}
+
 		/**
 		 * 设置能量存储值
 		 *
 		 * @param energyStored 能量存储值
-		 * @return 新的能量存储数据实例
+		 * @return 版本号加 1 的新能量存储数据实例
 		 */
 		public EnergyStorageData setEnergyStored(int energyStored) {
-			return new EnergyStorageData(maxEnergyStored, maxReceive, maxExtract, energyStored);
+			return new EnergyStorageData(maxEnergyStored, maxReceive, maxExtract, energyStored, version + 1);
 		}
 
 		/**
 		 * 设置最大提取值
 		 *
 		 * @param maxExtract 最大提取值
-		 * @return 新的能量存储数据实例
+		 * @return 版本号加 1 的新能量存储数据实例
 		 */
 		public EnergyStorageData setMaxExtract(int maxExtract) {
-			return new EnergyStorageData(maxEnergyStored, maxReceive, maxExtract, energyStored);
+			return new EnergyStorageData(maxEnergyStored, maxReceive, maxExtract, energyStored, version + 1);
 		}
 
 		/**
 		 * 设置最大接收值
 		 *
 		 * @param maxReceive 最大接收值
-		 * @return 新的能量存储数据实例
+		 * @return 版本号加 1 的新能量存储数据实例
 		 */
 		public EnergyStorageData setMaxReceive(int maxReceive) {
-			return new EnergyStorageData(maxEnergyStored, maxReceive, maxExtract, energyStored);
+			return new EnergyStorageData(maxEnergyStored, maxReceive, maxExtract, energyStored, version + 1);
 		}
 
 		/**
 		 * 设置最大能量存储值
 		 *
 		 * @param maxEnergyStored 最大能量存储值
-		 * @return 新的能量存储数据实例
+		 * @return 版本号加 1 的新能量存储数据实例
 		 */
 		public EnergyStorageData setMaxEnergyStored(int maxEnergyStored) {
-			return new EnergyStorageData(maxEnergyStored, maxReceive, maxExtract, energyStored);
+			return new EnergyStorageData(maxEnergyStored, maxReceive, maxExtract, energyStored, version + 1);
 		}
 
 		/**
@@ -356,11 +445,11 @@ public record ModComponentEnergyStorage(MutableDataComponentHolder parent,
 		 * @param maxReceive      最大接收值
 		 * @param maxExtract      最大提取值
 		 * @param energyStored    能量存储值
-		 * @return 新的能量存储数据实例
+		 * @return 版本号加 1 的新能量存储数据实例
 		 */
 		public EnergyStorageData setEnergyStored(int maxEnergyStored, int maxReceive,
 		                                         int maxExtract, int energyStored) {
-			return new EnergyStorageData(maxEnergyStored, maxReceive, maxExtract, energyStored);
+			return new EnergyStorageData(maxEnergyStored, maxReceive, maxExtract, energyStored, version + 1);
 		}
 	}
 }
\ No newline at end of file
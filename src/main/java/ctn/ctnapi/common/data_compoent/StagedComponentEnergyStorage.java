@@ -0,0 +1,263 @@
+package ctn.ctnapi.common.data_compoent;
+
+import ctn.ctnapi.capability.IModEnergyStorage;
+import ctn.ctnapi.common.data_compoent.ModComponentEnergyStorage.EnergyStorageData;
+import ctn.ctnapi.common.energy.EnergyTickScheduler;
+import net.minecraft.core.component.DataComponentType;
+import net.minecraft.util.Mth;
+import net.neoforged.neoforge.common.MutableDataComponentHolder;
+
+/**
+ * 暂存的组件能量存储
+ * 创建时读取一次能量存储数据组件，之后的修改只作用于本地字段，
+ * 在 {@link #commit()} 或刻结束时才写回一次数据组件。
+ * <br>
+ * 适合同一刻内多次读写物品能量的充电器、盔甲等。
+ * 暂存期间不应再通过其他途径修改同一物品的能量组件，否则提交时会被覆盖。
+ */
+public class StagedComponentEnergyStorage implements IModEnergyStorage {
+	private final MutableDataComponentHolder parent;
+	private final DataComponentType<EnergyStorageData> dataComponentType;
+	private int maxEnergyStored;
+	private int maxReceive;
+	private int maxExtract;
+	private int energyStored;
+	private long version;
+	private boolean dirty;
+	private boolean scheduled;
+	private final Runnable commitTask = this::onEndOfTick;
+
+	/**
+	 * 构造函数
+	 *
+	 * @param parent            可变数据组件持有者
+	 * @param dataComponentType 数据组件类型
+	 */
+	public StagedComponentEnergyStorage(MutableDataComponentHolder parent,
+	                                    DataComponentType<EnergyStorageData> dataComponentType) {
+		this.parent = parent;
+		this.dataComponentType = dataComponentType;
+		refresh();
+	}
+
+	/**
+	 * 重新读取数据组件，丢弃未提交的修改
+	 */
+	public void refresh() {
+		EnergyStorageData data = parent.getOrDefault(dataComponentType, EnergyStorageData.DEFAULT.get());
+		maxEnergyStored = data.maxEnergyStored();
+		maxReceive = data.maxReceive();
+		maxExtract = data.maxExtract();
+		energyStored = data.energyStored();
+		version = data.version();
+		dirty = false;
+	}
+
+	/**
+	 * 将修改写回数据组件
+	 *
+	 * @return 是否有修改被写回
+	 */
+	public boolean commit() {
+		if (!dirty) {
+			return false;
+		}
+		dirty = false;
+		parent.set(dataComponentType, new EnergyStorageData(maxEnergyStored, maxReceive, maxExtract, energyStored, ++version));
+		return true;
+	}
+
+	/**
+	 * 在本刻结束时自动提交，同一刻内多次调用只提交一次
+	 */
+	public void commitAtEndOfTick() {
+		if (!scheduled) {
+			scheduled = true;
+			EnergyTickScheduler.schedule(commitTask);
+		}
+	}
+
+	private void onEndOfTick() {
+		scheduled = false;
+		commit();
+	}
+
+	/**
+	 * 是否有未提交的修改
+	 *
+	 * @return 是否有未提交的修改
+	 */
+	public boolean isDirty() {
+		return dirty;
+	}
+
+	/**
+	 * 获取可变数据组件持有者
+	 *
+	 * @return 可变数据组件持有者
+	 */
+	public MutableDataComponentHolder getParent() {
+		return parent;
+	}
+
+	/**
+	 * 设置能量值
+	 *
+	 * @param energy 能量值
+	 */
+	@Override
+	public void setEnergy(int energy) {
+		if (energyStored != energy) {
+			energyStored = energy;
+			dirty = true;
+		}
+	}
+
+	/**
+	 * 设置最大能量存储值
+	 *
+	 * @param capacity 容量值
+	 */
+	@Override
+	public void setMaxEnergyStored(int capacity) {
+		if (maxEnergyStored != capacity) {
+			maxEnergyStored = capacity;
+			dirty = true;
+		}
+	}
+
+	/**
+	 * 获取最大能量提取值
+	 *
+	 * @return 最大能量提取值
+	 */
+	@Override
+	public int getMaxExtract() {
+		return maxExtract;
+	}
+
+	/**
+	 * 设置最大能量提取值
+	 *
+	 * @param maxExtract 最大提取值
+	 */
+	@Override
+	public void setMaxExtract(int maxExtract) {
+		if (this.maxExtract != maxExtract) {
+			this.maxExtract = maxExtract;
+			dirty = true;
+		}
+	}
+
+	/**
+	 * 获取最大能量接收值
+	 *
+	 * @return 最大能量接收值
+	 */
+	@Override
+	public int getMaxReceive() {
+		return maxReceive;
+	}
+
+	/**
+	 * 设置最大能量接收值
+	 *
+	 * @param maxReceive 最大接收值
+	 */
+	@Override
+	public void setMaxReceive(int maxReceive) {
+		if (this.maxReceive != maxReceive) {
+			this.maxReceive = maxReceive;
+			dirty = true;
+		}
+	}
+
+	/**
+	 * 接收能量
+	 *
+	 * @param toReceive 要接收的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际接收的能量值
+	 */
+	@Override
+	public int receiveEnergy(int toReceive, boolean simulate) {
+		if (!canReceive() || toReceive <= 0) {
+			return 0;
+		}
+		int energyReceived = Mth.clamp(maxEnergyStored - energyStored, 0, Math.min(maxReceive, toReceive));
+		if (!simulate) setEnergy(energyStored + energyReceived);
+		return energyReceived;
+	}
+
+	/**
+	 * 提取能量
+	 *
+	 * @param toExtract 要提取的能量值
+	 * @param simulate  是否为模拟操作
+	 * @return 实际提取的能量值
+	 */
+	@Override
+	public int extractEnergy(int toExtract, boolean simulate) {
+		if (!canExtract() || toExtract <= 0) {
+			return 0;
+		}
+		int energyExtracted = Math.min(energyStored, Math.min(maxExtract, toExtract));
+		if (!simulate) setEnergy(energyStored - energyExtracted);
+		return energyExtracted;
+	}
+
+	/**
+	 * 获取存储的能量值
+	 *
+	 * @return 存储的能量值
+	 */
+	@Override
+	public int getEnergyStored() {
+		return energyStored;
+	}
+
+	/**
+	 * 获取最大能量存储值
+	 *
+	 * @return 最大能量存储值
+	 */
+	@Override
+	public int getMaxEnergyStored() {
+		return maxEnergyStored;
+	}
+
+	/**
+	 * 检查是否可以提取能量
+	 *
+	 * @return 是否可以提取能量
+	 */
+	@Override
+	public boolean canExtract() {
+		return maxExtract > 0;
+	}
+
+	/**
+	 * 检查是否可以接收能量
+	 *
+	 * @return 是否可以接收能量
+	 */
+	@Override
+	public boolean canReceive() {
+		return maxReceive > 0;
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "StagedComponentEnergyStorage:{" +
+				"energy=" + energyStored +
+				", capacity=" + maxEnergyStored +
+				", maxReceive=" + maxReceive +
+				", maxExtract=" + maxExtract +
+				", dirty=" + dirty + "}";
+	}
+}
@@ -0,0 +1,232 @@
+package ctn.ctnapi.common.energy;
+
+import ctn.ctnapi.CtnApiMain;
+import ctn.ctnapi.adapter.AtomicModEnergyStorage;
+import ctn.ctnapi.adapter.EnergyBankStorage;
+import ctn.ctnapi.capability.IEnergyStorageModify;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.saveddata.SavedData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 能量银行存档数据
+ * 服务器范围内以 UUID 或名称区分的共享能量存储，方块或物品通过 {@link EnergyBankStorage} 绑定到银行，
+ * 无需电缆即可跨距离存取能量。
+ * <br>
+ * 银行保存在并发映射中，能量存储本身为 {@link AtomicModEnergyStorage}，可以在任意线程中存取，
+ * 变化通知在 {@link #get(MinecraftServer)} 绑定的服务端线程中执行。
+ * 存档时每个银行写入 4 个 long，全部放入一个 {@link LongArrayTag}。
+ */
+public class EnergyBankSavedData extends SavedData {
+	/**
+	 * 存档文件名
+	 */
+	public static final String ID = CtnApiMain.CAID + "_energy_banks";
+	/**
+	 * 每个银行占用的 long 数量
+	 */
+	private static final int STRIDE = 4;
+	private static final Factory<EnergyBankSavedData> FACTORY = new Factory<>(EnergyBankSavedData::new, EnergyBankSavedData::load, null);
+
+	private final ConcurrentHashMap<UUID, AtomicModEnergyStorage> banks = new ConcurrentHashMap<>();
+	private final IEnergyStorageModify dirtyListener = new IEnergyStorageModify() {
+		@Override
+		public void onEnergyChanged() {
+			setDirty();
+		}
+
+		@Override
+		public void onEnergyLoad() {
+		}
+	};
+	@Nullable
+	private volatile Executor owner;
+
+	/**
+	 * 获取服务器的能量银行数据，保存在主世界中
+	 *
+	 * @param server 服务器
+	 * @return 能量银行数据
+	 */
+	public static EnergyBankSavedData get(@NotNull MinecraftServer server) {
+		EnergyBankSavedData data = server.overworld().getDataStorage().computeIfAbsent(FACTORY, ID);
+		if (data.owner != server) {
+			data.setOwner(server);
+		}
+		return data;
+	}
+
+	/**
+	 * 设置所有银行的所有者，变化通知在所有者线程中执行
+	 *
+	 * @param owner 所有者，通常为服务端
+	 */
+	public void setOwner(@Nullable Executor owner) {
+		this.owner = owner;
+		for (AtomicModEnergyStorage bank : banks.values()) {
+			bank.setOwner(owner);
+		}
+	}
+
+	/**
+	 * 根据名称生成银行 UUID，相同名称总是得到相同的 UUID
+	 *
+	 * @param name 名称
+	 * @return 银行 UUID
+	 */
+	public static UUID nameToId(@NotNull String name) {
+		return UUID.nameUUIDFromBytes((ID + ":" + name).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 从NBT标签加载
+	 *
+	 * @param tag      NBT标签
+	 * @param provider 数据提供者
+	 * @return 能量银行数据
+	 */
+	public static EnergyBankSavedData load(CompoundTag tag, HolderLookup.Provider provider) {
+		EnergyBankSavedData data = new EnergyBankSavedData();
+		if (!tag.contains("banks", Tag.TAG_LONG_ARRAY)) {
+			return data;
+		}
+		long[] values = tag.getLongArray("banks");
+		if (values.length % STRIDE != 0) {
+			CtnApiMain.LOGGER.error("Energy bank data is corrupted, length: {}", values.length);
+		}
+		for (int i = 0; i + STRIDE <= values.length; i += STRIDE) {
+			UUID id = new UUID(values[i], values[i + 1]);
+			long limits = values[i + 3];
+			AtomicModEnergyStorage bank = new AtomicModEnergyStorage((int) (values[i + 2] >>> 32),
+					(int) (limits >>> 32), (int) limits, (int) values[i + 2]);
+			bank.setOn(data.dirtyListener);
+			data.banks.put(id, bank);
+		}
+		return data;
+	}
+
+	/**
+	 * 保存为NBT标签
+	 *
+	 * @param tag      NBT标签
+	 * @param provider 数据提供者
+	 * @return NBT标签
+	 */
+	@Override
+	public @NotNull CompoundTag save(@NotNull CompoundTag tag, HolderLookup.@NotNull Provider provider) {
+		// 保存期间可能有银行被添加或删除，按实际写入的数量截断
+		long[] values = new long[banks.size() * STRIDE];
+		int length = 0;
+		for (var entry : banks.entrySet()) {
+			if (length + STRIDE > values.length) {
+				values = Arrays.copyOf(values, values.length * 2 + STRIDE);
+			}
+			AtomicModEnergyStorage bank = entry.getValue();
+			values[length++] = entry.getKey().getMostSignificantBits();
+			values[length++] = entry.getKey().getLeastSignificantBits();
+			values[length++] = (long) bank.getMaxEnergyStored() << 32 | (bank.getEnergyStored() & 0xFFFFFFFFL);
+			values[length++] = (long) bank.getMaxReceive() << 32 | (bank.getMaxExtract() & 0xFFFFFFFFL);
+		}
+		tag.put("banks", new LongArrayTag(length == values.length ? values : Arrays.copyOf(values, length)));
+		return tag;
+	}
+
+	/**
+	 * 获取银行，不存在时创建
+	 *
+	 * @param id         银行 UUID
+	 * @param capacity   容量
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @return 银行能量存储
+	 */
+	public AtomicModEnergyStorage getOrCreate(@NotNull UUID id, int capacity, int maxReceive, int maxExtract) {
+		return banks.computeIfAbsent(id, key -> {
+			AtomicModEnergyStorage bank = new AtomicModEnergyStorage(capacity, maxReceive, maxExtract);
+			bank.setOwner(owner);
+			bank.setOn(dirtyListener);
+			setDirty();
+			return bank;
+		});
+	}
+
+	/**
+	 * 获取名称对应的银行，不存在时创建
+	 *
+	 * @param name       名称
+	 * @param capacity   容量
+	 * @param maxReceive 最大接收量
+	 * @param maxExtract 最大提取量
+	 * @return 银行能量存储
+	 */
+	public AtomicModEnergyStorage getOrCreate(@NotNull String name, int capacity, int maxReceive, int maxExtract) {
+		return getOrCreate(nameToId(name), capacity, maxReceive, maxExtract);
+	}
+
+	/**
+	 * 获取银行
+	 *
+	 * @param id 银行 UUID
+	 * @return 银行能量存储，不存在时返回 null
+	 */
+	@Nullable
+	public AtomicModEnergyStorage get(@NotNull UUID id) {
+		return banks.get(id);
+	}
+
+	/**
+	 * 移除银行
+	 *
+	 * @param id 银行 UUID
+	 * @return 被移除的银行能量存储，不存在时返回 null
+	 */
+	@Nullable
+	public AtomicModEnergyStorage remove(@NotNull UUID id) {
+		AtomicModEnergyStorage bank = banks.remove(id);
+		if (bank != null) {
+			setDirty();
+		}
+		return bank;
+	}
+
+	/**
+	 * 创建绑定到银行的能量存储
+	 *
+	 * @param id 银行 UUID
+	 * @return 绑定到银行的能量存储
+	 */
+	public EnergyBankStorage bind(@NotNull UUID id) {
+		return new EnergyBankStorage(this, id);
+	}
+
+	/**
+	 * 获取所有银行 UUID
+	 *
+	 * @return 银行 UUID 集合（只读视图）
+	 */
+	public Set<UUID> getIds() {
+		return Collections.unmodifiableSet(banks.keySet());
+	}
+
+	/**
+	 * 获取银行数量
+	 *
+	 * @return 银行数量
+	 */
+	public int size() {
+		return banks.size();
+	}
+}
@@ -0,0 +1,357 @@
+package ctn.ctnapi.common.energy;
+
+import ctn.ctnapi.CtnApiMain;
+import ctn.ctnapi.capability.IModEnergyStorage;
+import net.neoforged.neoforge.energy.IEnergyStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 能量网络
+ * 一组相互连通的节点，每刻只进行一次线性的汇总与按比例分配，
+ * 替代每个方块各自与相邻方块两两传递能量。
+ * <br>
+ * 分配顺序：提供者优先供给消耗者，盈余存入缓冲；提供者不足时由缓冲补足。
+ * 实际接收少于模拟结果时，剩余能量按提取比例退回给提供能量的节点。
+ */
+public class EnergyNetwork {
+	private final List<EnergyNetworkNode> nodes = new ArrayList<>();
+	private final List<EnergyNetworkNode> view = Collections.unmodifiableList(nodes);
+	/**
+	 * 本刻每个节点的能量存储
+	 */
+	private IEnergyStorage[] storages = new IEnergyStorage[16];
+	/**
+	 * 每个节点可提供的能量
+	 */
+	private int[] supply = new int[16];
+	/**
+	 * 每个节点需要的能量
+	 */
+	private int[] demand = new int[16];
+	/**
+	 * 每个节点本刻分配到的能量
+	 */
+	private int[] share = new int[16];
+	/**
+	 * 每个节点本刻实际被提取的能量
+	 */
+	private int[] taken = new int[16];
+	private long lastTransferred;
+	/**
+	 * 是否有节点被移除，需要检查网络是否断开
+	 */
+	boolean needsSplit;
+
+	/**
+	 * 添加节点
+	 *
+	 * @param node 节点
+	 */
+	void add(EnergyNetworkNode node) {
+		node.network = this;
+		node.index = nodes.size();
+		nodes.add(node);
+	}
+
+	/**
+	 * 移除节点（交换删除）
+	 *
+	 * @param node 节点
+	 */
+	void remove(EnergyNetworkNode node) {
+		int index = node.index;
+		int last = nodes.size() - 1;
+		EnergyNetworkNode moved = nodes.remove(last);
+		if (index != last) {
+			nodes.set(index, moved);
+			moved.index = index;
+		}
+		node.network = null;
+		node.index = -1;
+	}
+
+	/**
+	 * 获取所有节点
+	 *
+	 * @return 不可修改的节点列表
+	 */
+	public List<EnergyNetworkNode> getNodes() {
+		return view;
+	}
+
+	/**
+	 * 获取节点数量
+	 *
+	 * @return 节点数量
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * 获取上一刻传输的能量
+	 *
+	 * @return 传输的能量
+	 */
+	public long getLastTransferred() {
+		return lastTransferred;
+	}
+
+	/**
+	 * 进行一次能量分配
+	 */
+	public void tick() {
+		int size = nodes.size();
+		if (supply.length < size) {
+			int length = Math.max(size, supply.length * 2);
+			storages = new IEnergyStorage[length];
+			supply = new int[length];
+			demand = new int[length];
+			share = new int[length];
+			taken = new int[length];
+		}
+		try {
+			distribute(size);
+		} finally {
+			Arrays.fill(storages, 0, size, null);
+		}
+	}
+
+	/**
+	 * 汇总供给与需求后分配能量
+	 *
+	 * @param size 节点数量
+	 */
+	private void distribute(int size) {
+		// 汇总供给与需求
+		long providerSupply = 0, consumerDemand = 0, bufferSupply = 0, bufferDemand = 0;
+		for (int i = 0; i < size; i++) {
+			EnergyNetworkNode node = nodes.get(i);
+			IEnergyStorage storage = node.getStorage();
+			storages[i] = storage;
+			supply[i] = 0;
+			demand[i] = 0;
+			taken[i] = 0;
+			if (storage == null) {
+				continue;
+			}
+			switch (node.getRole()) {
+				case PROVIDER -> {
+					if (storage.canExtract()) {
+						providerSupply += supply[i] = storage.extractEnergy(Integer.MAX_VALUE, true);
+					}
+				}
+				case CONSUMER -> {
+					if (storage.canReceive()) {
+						consumerDemand += demand[i] = storage.receiveEnergy(Integer.MAX_VALUE, true);
+					}
+				}
+				case BUFFER -> {
+					if (storage.canExtract()) {
+						bufferSupply += supply[i] = storage.extractEnergy(Integer.MAX_VALUE, true);
+					}
+					if (storage.canReceive()) {
+						bufferDemand += demand[i] = storage.receiveEnergy(Integer.MAX_VALUE, true);
+					}
+				}
+				default -> {
+				}
+			}
+		}
+
+		long fromProviders, fromBuffers, toConsumers, toBuffers;
+		if (providerSupply >= consumerDemand) {
+			toConsumers = consumerDemand;
+			toBuffers = Math.min(providerSupply - consumerDemand, bufferDemand);
+			fromProviders = toConsumers + toBuffers;
+			fromBuffers = 0;
+		} else {
+			fromProviders = providerSupply;
+			fromBuffers = Math.min(consumerDemand - providerSupply, bufferSupply);
+			toConsumers = fromProviders + fromBuffers;
+			toBuffers = 0;
+		}
+		if (fromProviders + fromBuffers <= 0) {
+			lastTransferred = 0;
+			return;
+		}
+
+		// 按比例提取
+		long extracted = 0;
+		extracted += extract(EnergyNetworkNode.Role.PROVIDER, providerSupply, fromProviders);
+		extracted += extract(EnergyNetworkNode.Role.BUFFER, bufferSupply, fromBuffers);
+
+		// 按比例插入，实际提取量不足时按比例缩减
+		long delivered = receive(EnergyNetworkNode.Role.CONSUMER, consumerDemand, Math.min(toConsumers, extracted));
+		delivered += receive(EnergyNetworkNode.Role.BUFFER, bufferDemand, Math.min(toBuffers, extracted - delivered));
+		long remaining = extracted - delivered;
+		if (remaining > 0) {
+			remaining -= refund(remaining, extracted);
+		}
+		if (remaining > 0) {
+			long pushed = push(remaining);
+			delivered += pushed;
+			remaining -= pushed;
+		}
+		if (remaining > 0) {
+			CtnApiMain.LOGGER.error("{} lost {} energy that could not be returned to any node", this, remaining);
+		}
+		lastTransferred = delivered;
+	}
+
+	/**
+	 * 从指定角色的节点按比例提取能量
+	 *
+	 * @param role   节点角色
+	 * @param total  该角色可提供的能量总和
+	 * @param target 需要提取的能量
+	 * @return 实际提取的能量
+	 */
+	private long extract(EnergyNetworkNode.Role role, long total, long target) {
+		if (target <= 0) {
+			return 0;
+		}
+		split(role, supply, total, target);
+		long extracted = 0;
+		for (int i = 0, size = nodes.size(); i < size; i++) {
+			if (share[i] > 0) {
+				taken[i] = storages[i].extractEnergy(share[i], false);
+				extracted += taken[i];
+			}
+		}
+		return extracted;
+	}
+
+	/**
+	 * 向指定角色的节点按比例插入能量
+	 *
+	 * @param role   节点角色
+	 * @param total  该角色需要的能量总和
+	 * @param target 需要插入的能量
+	 * @return 实际插入的能量
+	 */
+	private long receive(EnergyNetworkNode.Role role, long total, long target) {
+		if (target <= 0) {
+			return 0;
+		}
+		split(role, demand, total, target);
+		long received = 0;
+		for (int i = 0, size = nodes.size(); i < size; i++) {
+			if (share[i] > 0) {
+				received += storages[i].receiveEnergy(share[i], false);
+			}
+		}
+		return received;
+	}
+
+	/**
+	 * 将模拟与实际不一致导致的剩余能量按提取比例退回给被提取的节点
+	 *
+	 * @param amount    剩余能量
+	 * @param extracted 本刻提取的能量总和
+	 * @return 退回的能量
+	 */
+	private long refund(long amount, long extracted) {
+		int size = nodes.size();
+		long assigned = 0;
+		for (int i = 0; i < size; i++) {
+			share[i] = taken[i] > 0 ? (int) (taken[i] * amount / extracted) : 0;
+			assigned += share[i];
+		}
+		// 余数依次分给仍未退满的节点，退回量不超过提取量
+		for (int i = 0; i < size && assigned < amount; i++) {
+			if (share[i] < taken[i]) {
+				int add = (int) Math.min(taken[i] - share[i], amount - assigned);
+				share[i] += add;
+				assigned += add;
+			}
+		}
+		long refunded = 0;
+		for (int i = 0; i < size; i++) {
+			if (share[i] > 0) {
+				refunded += giveBack(storages[i], share[i]);
+			}
+		}
+		return refunded;
+	}
+
+	/**
+	 * 将能量放回被提取的能量存储
+	 * <br>
+	 * 模组能量存储通过 {@link IModEnergyStorage#applyEnergyDelta(long)} 写回，不受接收上限限制
+	 *
+	 * @param storage 能量存储
+	 * @param amount  能量
+	 * @return 放回的能量
+	 */
+	private static int giveBack(IEnergyStorage storage, int amount) {
+		if (storage instanceof IModEnergyStorage modStorage && modStorage.applyEnergyDelta(amount)) {
+			return amount;
+		}
+		return storage.canReceive() ? storage.receiveEnergy(amount, false) : 0;
+	}
+
+	/**
+	 * 将无法退回的剩余能量放入任意可接收的节点
+	 *
+	 * @param amount 剩余能量
+	 * @return 放入的能量
+	 */
+	private long push(long amount) {
+		long pushed = 0;
+		for (int i = 0, size = nodes.size(); i < size && pushed < amount; i++) {
+			IEnergyStorage storage = storages[i];
+			if (storage != null && storage.canReceive()) {
+				pushed += storage.receiveEnergy((int) Math.min(amount - pushed, Integer.MAX_VALUE), false);
+			}
+		}
+		return pushed;
+	}
+
+	/**
+	 * 按权重将目标值拆分到指定角色的节点，结果写入 {@link #share}
+	 *
+	 * @param role    节点角色
+	 * @param weights 权重（即每个节点的上限）
+	 * @param total   权重总和
+	 * @param target  目标值
+	 */
+	private void split(EnergyNetworkNode.Role role, int[] weights, long total, long target) {
+		int size = nodes.size();
+		long assigned = 0;
+		for (int i = 0; i < size; i++) {
+			if (nodes.get(i).getRole() != role || weights[i] <= 0) {
+				share[i] = 0;
+				continue;
+			}
+			long value = target >= total ? weights[i] : (long) ((double) weights[i] * target / total);
+			value = Math.min(value, target - assigned);
+			share[i] = (int) value;
+			assigned += value;
+		}
+		// 余数依次分给仍有余量的节点
+		for (int i = 0; i < size && assigned < target; i++) {
+			if (nodes.get(i).getRole() == role && share[i] < weights[i]) {
+				int add = (int) Math.min(weights[i] - share[i], target - assigned);
+				share[i] += add;
+				assigned += add;
+			}
+		}
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "EnergyNetwork:{" +
+				"size=" + nodes.size() +
+				", lastTransferred=" + lastTransferred + "}";
+	}
+}
@@ -0,0 +1,284 @@
+package ctn.ctnapi.common.energy;
+
+import ctn.ctnapi.CtnApiMain;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.energy.IEnergyStorage;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 能量网络管理器
+ * 每个服务端世界一个，维护位置到节点的映射，在放置与破坏时增量合并或拆分网络，
+ * 并在每刻结束时对每个网络进行一次分配。
+ * <br>
+ * 方块实体应在 {@code onLoad} 中调用 {@link #joinCapability}（或导线调用 {@link #join}），在 {@code setRemoved} 与
+ * {@code onChunkUnloaded} 中调用 {@link #leave}。
+ */
+@EventBusSubscriber(modid = CtnApiMain.CAID)
+public class EnergyNetworkManager {
+	private static final Map<ServerLevel, EnergyNetworkManager> MANAGERS = new IdentityHashMap<>();
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	private final ServerLevel level;
+	private final Long2ObjectOpenHashMap<EnergyNetworkNode> nodes = new Long2ObjectOpenHashMap<>();
+	private final Set<EnergyNetwork> networks = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final List<EnergyNetwork> ticking = new ArrayList<>();
+
+	/**
+	 * 获取世界的能量网络管理器
+	 *
+	 * @param level 服务端世界
+	 * @return 能量网络管理器
+	 */
+	public static EnergyNetworkManager get(@NotNull ServerLevel level) {
+		return MANAGERS.computeIfAbsent(level, EnergyNetworkManager::new);
+	}
+
+	private EnergyNetworkManager(ServerLevel level) {
+		this.level = level;
+	}
+
+	/**
+	 * 世界每刻结束时分配能量
+	 *
+	 * @param event 世界刻事件
+	 */
+	@SubscribeEvent
+	public static void onLevelTick(LevelTickEvent.Post event) {
+		if (event.getLevel() instanceof ServerLevel serverLevel) {
+			EnergyNetworkManager manager = MANAGERS.get(serverLevel);
+			if (manager != null) {
+				manager.tick();
+			}
+		}
+	}
+
+	/**
+	 * 世界卸载时移除管理器
+	 *
+	 * @param event 世界卸载事件
+	 */
+	@SubscribeEvent
+	public static void onLevelUnload(LevelEvent.Unload event) {
+		if (event.getLevel() instanceof ServerLevel serverLevel) {
+			MANAGERS.remove(serverLevel);
+		}
+	}
+
+	/**
+	 * 将位置加入能量网络，与相邻的网络合并
+	 * <br>
+	 * 能量存储在加入时固定，方块能力失效后不会更新，方块的能量能力请使用 {@link #joinCapability}
+	 *
+	 * @param pos     方块位置
+	 * @param role    节点角色
+	 * @param storage 能量存储，导线为 null
+	 * @return 加入的节点
+	 */
+	public EnergyNetworkNode join(@NotNull BlockPos pos, @NotNull EnergyNetworkNode.Role role, @Nullable IEnergyStorage storage) {
+		long packed = pos.asLong();
+		if (nodes.containsKey(packed)) {
+			leave(pos);
+		}
+		return add(new EnergyNetworkNode(packed, role, storage));
+	}
+
+	/**
+	 * 将位置加入能量网络，与相邻的网络合并
+	 * <br>
+	 * 能量存储通过 {@link net.neoforged.neoforge.capabilities.BlockCapabilityCache} 解析，方块能力失效后自动更新
+	 *
+	 * @param pos  方块位置
+	 * @param role 节点角色
+	 * @param side 查询能力的方向，null 表示无方向
+	 * @return 加入的节点
+	 */
+	public EnergyNetworkNode joinCapability(@NotNull BlockPos pos, @NotNull EnergyNetworkNode.Role role, @Nullable Direction side) {
+		long packed = pos.asLong();
+		if (nodes.containsKey(packed)) {
+			leave(pos);
+		}
+		return add(new EnergyNetworkNode(level, packed, role, side));
+	}
+
+	/**
+	 * 放入节点并与相邻的网络合并
+	 *
+	 * @param node 节点
+	 * @return 节点
+	 */
+	private EnergyNetworkNode add(EnergyNetworkNode node) {
+		long packed = node.getPackedPos();
+		nodes.put(packed, node);
+
+		EnergyNetwork target = null;
+		for (Direction direction : DIRECTIONS) {
+			EnergyNetworkNode neighbor = nodes.get(BlockPos.offset(packed, direction));
+			if (neighbor == null || neighbor.network == null || neighbor.network == target) {
+				continue;
+			}
+			if (target == null) {
+				target = neighbor.network;
+			} else {
+				target = merge(target, neighbor.network);
+			}
+		}
+		if (target == null) {
+			target = new EnergyNetwork();
+			networks.add(target);
+		}
+		target.add(node);
+		return node;
+	}
+
+	/**
+	 * 将位置移出能量网络，网络可能在下一刻被拆分
+	 *
+	 * @param pos 方块位置
+	 */
+	public void leave(@NotNull BlockPos pos) {
+		EnergyNetworkNode node = nodes.remove(pos.asLong());
+		if (node == null || node.network == null) {
+			return;
+		}
+		EnergyNetwork network = node.network;
+		network.remove(node);
+		if (network.size() == 0) {
+			networks.remove(network);
+		} else {
+			network.needsSplit = true;
+		}
+	}
+
+	/**
+	 * 获取位置所在的网络
+	 *
+	 * @param pos 方块位置
+	 * @return 能量网络
+	 */
+	@Nullable
+	public EnergyNetwork getNetwork(@NotNull BlockPos pos) {
+		EnergyNetworkNode node = nodes.get(pos.asLong());
+		return node == null ? null : node.network;
+	}
+
+	/**
+	 * 获取位置对应的节点
+	 *
+	 * @param pos 方块位置
+	 * @return 节点
+	 */
+	@Nullable
+	public EnergyNetworkNode getNode(@NotNull BlockPos pos) {
+		return nodes.get(pos.asLong());
+	}
+
+	/**
+	 * 获取网络数量
+	 *
+	 * @return 网络数量
+	 */
+	public int getNetworkCount() {
+		return networks.size();
+	}
+
+	/**
+	 * 拆分断开的网络后对每个网络进行一次分配
+	 */
+	public void tick() {
+		ticking.clear();
+		ticking.addAll(networks);
+		for (EnergyNetwork network : ticking) {
+			if (network.needsSplit) {
+				split(network);
+			}
+		}
+		ticking.clear();
+		ticking.addAll(networks);
+		for (EnergyNetwork network : ticking) {
+			network.tick();
+		}
+	}
+
+	/**
+	 * 合并两个网络，节点较少的并入节点较多的
+	 *
+	 * @param a 网络
+	 * @param b 网络
+	 * @return 合并后的网络
+	 */
+	private EnergyNetwork merge(EnergyNetwork a, EnergyNetwork b) {
+		EnergyNetwork into = a.size() >= b.size() ? a : b;
+		EnergyNetwork from = into == a ? b : a;
+		for (EnergyNetworkNode node : new ArrayList<>(from.getNodes())) {
+			from.remove(node);
+			into.add(node);
+		}
+		into.needsSplit |= from.needsSplit;
+		networks.remove(from);
+		return into;
+	}
+
+	/**
+	 * 通过广度优先搜索将网络拆分为连通分量
+	 *
+	 * @param network 网络
+	 */
+	private void split(EnergyNetwork network) {
+		network.needsSplit = false;
+		List<EnergyNetworkNode> remaining = new ArrayList<>(network.getNodes());
+		if (remaining.size() <= 1) {
+			return;
+		}
+		Map<EnergyNetworkNode, Boolean> visited = new IdentityHashMap<>(remaining.size());
+		LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+		List<List<EnergyNetworkNode>> components = new ArrayList<>();
+		for (EnergyNetworkNode start : remaining) {
+			if (visited.containsKey(start)) {
+				continue;
+			}
+			List<EnergyNetworkNode> component = new ArrayList<>();
+			visited.put(start, Boolean.TRUE);
+			queue.enqueue(start.getPackedPos());
+			while (!queue.isEmpty()) {
+				long packed = queue.dequeueLong();
+				component.add(nodes.get(packed));
+				for (Direction direction : DIRECTIONS) {
+					EnergyNetworkNode neighbor = nodes.get(BlockPos.offset(packed, direction));
+					if (neighbor != null && neighbor.network == network && visited.put(neighbor, Boolean.TRUE) == null) {
+						queue.enqueue(neighbor.getPackedPos());
+					}
+				}
+			}
+			components.add(component);
+		}
+		if (components.size() == 1) {
+			return;
+		}
+		// 最大的连通分量保留原网络，其余移入新网络
+		components.sort((a, b) -> Integer.compare(b.size(), a.size()));
+		for (int i = 1; i < components.size(); i++) {
+			EnergyNetwork split = new EnergyNetwork();
+			for (EnergyNetworkNode node : components.get(i)) {
+				network.remove(node);
+				split.add(node);
+			}
+			networks.add(split);
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package ctn.ctnapi.common.energy;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.neoforged.neoforge.capabilities.BlockCapabilityCache;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.energy.IEnergyStorage;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 能量网络节点
+ * 表示加入能量网络的一个方块位置
+ * <br>
+ * 通过 {@link EnergyNetworkManager#joinCapability} 加入的节点每次从 {@link BlockCapabilityCache} 读取能量存储，
+ * 方块能力失效后自动使用新的能量存储
+ */
+public class EnergyNetworkNode {
+	private final long pos;
+	private final Role role;
+	@Nullable
+	private final IEnergyStorage storage;
+	@Nullable
+	private final BlockCapabilityCache<IEnergyStorage, Direction> capability;
+	@Nullable
+	EnergyNetwork network;
+	/**
+	 * 在所属网络节点列表中的索引
+	 */
+	int index = -1;
+
+	/**
+	 * 构造函数
+	 *
+	 * @param pos     方块位置（{@link BlockPos#asLong()}）
+	 * @param role    节点角色
+	 * @param storage 能量存储，导线为 null
+	 */
+	EnergyNetworkNode(long pos, Role role, @Nullable IEnergyStorage storage) {
+		this.pos = pos;
+		this.role = storage == null ? Role.CONDUCTOR : role;
+		this.storage = storage;
+		this.capability = null;
+	}
+
+	/**
+	 * 构造函数，能量存储通过能力缓存解析
+	 *
+	 * @param level 服务端世界
+	 * @param pos   方块位置（{@link BlockPos#asLong()}）
+	 * @param role  节点角色
+	 * @param side  查询能力的方向，null 表示无方向
+	 */
+	EnergyNetworkNode(ServerLevel level, long pos, Role role, @Nullable Direction side) {
+		this.pos = pos;
+		this.role = role;
+		this.storage = null;
+		this.capability = role == Role.CONDUCTOR ? null : BlockCapabilityCache.create(Capabilities.EnergyStorage.BLOCK,
+				level, BlockPos.of(pos), side, () -> network != null, () -> {
+				});
+	}
+
+	/**
+	 * 获取方块位置
+	 *
+	 * @return 方块位置
+	 */
+	public BlockPos getPos() {
+		return BlockPos.of(pos);
+	}
+
+	/**
+	 * 获取压缩后的方块位置
+	 *
+	 * @return 方块位置（{@link BlockPos#asLong()}）
+	 */
+	public long getPackedPos() {
+		return pos;
+	}
+
+	/**
+	 * 获取节点角色
+	 *
+	 * @return 节点角色
+	 */
+	public Role getRole() {
+		return role;
+	}
+
+	/**
+	 * 获取能量存储
+	 *
+	 * @return 能量存储，导线或方块没有能量能力时为 null
+	 */
+	@Nullable
+	public IEnergyStorage getStorage() {
+		return capability != null ? capability.getCapability() : storage;
+	}
+
+	/**
+	 * 获取所属网络
+	 *
+	 * @return 能量网络
+	 */
+	@Nullable
+	public EnergyNetwork getNetwork() {
+		return network;
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "EnergyNetworkNode:{" +
+				"pos=" + BlockPos.of(pos) +
+				", role=" + role + "}";
+	}
+
+	/**
+	 * 节点角色
+	 */
+	public enum Role {
+		/**
+		 * 只负责连接的导线
+		 */
+		CONDUCTOR,
+		/**
+		 * 发电机等能量提供者
+		 */
+		PROVIDER,
+		/**
+		 * 机器等能量消耗者
+		 */
+		CONSUMER,
+		/**
+		 * 电池等缓冲储能，在提供者有盈余时接收，不足时输出
+		 */
+		BUFFER
+	}
+}
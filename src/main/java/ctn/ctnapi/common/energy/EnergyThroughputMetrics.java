@@ -0,0 +1,223 @@
+package ctn.ctnapi.common.energy;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * 能量吞吐统计
+ * 以固定大小的环形缓冲按刻记录接收与提取的能量，可获取平均值、峰值与最近一刻的速率。
+ * <br>
+ * 时间按时钟惰性推进，只在记录或读取时清空经过的槽位，记录与读取均不分配对象。
+ */
+public class EnergyThroughputMetrics {
+	/**
+	 * 默认窗口大小（1分钟）
+	 */
+	public static final int DEFAULT_SIZE = 1200;
+
+	private final LongSupplier clock;
+	private final long[] received;
+	private final long[] extracted;
+	private long receivedSum;
+	private long extractedSum;
+	/**
+	 * 当前刻对应的槽位
+	 */
+	private int head;
+	/**
+	 * 当前槽位对应的时间
+	 */
+	private long headTick;
+	/**
+	 * 已经记录过的刻数，不超过窗口大小
+	 */
+	private int filled;
+
+	/**
+	 * 构造函数，窗口大小为 {@link #DEFAULT_SIZE}
+	 *
+	 * @param clock 时钟，通常为 {@code level::getGameTime}
+	 */
+	public EnergyThroughputMetrics(LongSupplier clock) {
+		this(DEFAULT_SIZE, clock);
+	}
+
+	/**
+	 * 构造函数
+	 *
+	 * @param size  窗口大小（刻）
+	 * @param clock 时钟，通常为 {@code level::getGameTime}
+	 */
+	public EnergyThroughputMetrics(int size, LongSupplier clock) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Size must be positive: " + size);
+		}
+		this.clock = clock;
+		this.received = new long[size];
+		this.extracted = new long[size];
+		this.headTick = clock.getAsLong();
+		this.filled = 1;
+	}
+
+	/**
+	 * 记录接收的能量
+	 *
+	 * @param energy 能量值
+	 */
+	public void recordReceived(long energy) {
+		advance();
+		received[head] += energy;
+		receivedSum += energy;
+	}
+
+	/**
+	 * 记录提取的能量
+	 *
+	 * @param energy 能量值
+	 */
+	public void recordExtracted(long energy) {
+		advance();
+		extracted[head] += energy;
+		extractedSum += energy;
+	}
+
+	/**
+	 * 获取窗口内平均每刻接收的能量
+	 *
+	 * @return 平均接收速率
+	 */
+	public double getAverageReceived() {
+		advance();
+		return (double) receivedSum / filled;
+	}
+
+	/**
+	 * 获取窗口内平均每刻提取的能量
+	 *
+	 * @return 平均提取速率
+	 */
+	public double getAverageExtracted() {
+		advance();
+		return (double) extractedSum / filled;
+	}
+
+	/**
+	 * 获取窗口内单刻接收的最大能量
+	 *
+	 * @return 峰值接收速率
+	 */
+	public long getPeakReceived() {
+		advance();
+		return peak(received);
+	}
+
+	/**
+	 * 获取窗口内单刻提取的最大能量
+	 *
+	 * @return 峰值提取速率
+	 */
+	public long getPeakExtracted() {
+		advance();
+		return peak(extracted);
+	}
+
+	/**
+	 * 获取上一刻接收的能量，本刻仍在记录中因此不计入
+	 *
+	 * @return 当前接收速率
+	 */
+	public long getCurrentReceived() {
+		advance();
+		return filled > 1 ? received[previous()] : 0;
+	}
+
+	/**
+	 * 获取上一刻提取的能量，本刻仍在记录中因此不计入
+	 *
+	 * @return 当前提取速率
+	 */
+	public long getCurrentExtracted() {
+		advance();
+		return filled > 1 ? extracted[previous()] : 0;
+	}
+
+	/**
+	 * 获取窗口内的净流入（接收减提取）
+	 *
+	 * @return 净流入的能量
+	 */
+	public long getNetFlow() {
+		advance();
+		return receivedSum - extractedSum;
+	}
+
+	/**
+	 * 获取窗口大小
+	 *
+	 * @return 窗口大小（刻）
+	 */
+	public int getSize() {
+		return received.length;
+	}
+
+	/**
+	 * 清空所有记录
+	 */
+	public void reset() {
+		Arrays.fill(received, 0);
+		Arrays.fill(extracted, 0);
+		receivedSum = 0;
+		extractedSum = 0;
+		headTick = clock.getAsLong();
+		filled = 1;
+	}
+
+	/**
+	 * 推进到当前时间，清空经过的槽位
+	 */
+	private void advance() {
+		long now = clock.getAsLong();
+		long elapsed = now - headTick;
+		if (elapsed <= 0) {
+			return;
+		}
+		int size = received.length;
+		int steps = (int) Math.min(elapsed, size);
+		for (int i = 0; i < steps; i++) {
+			head = head + 1 == size ? 0 : head + 1;
+			receivedSum -= received[head];
+			extractedSum -= extracted[head];
+			received[head] = 0;
+			extracted[head] = 0;
+		}
+		headTick = now;
+		filled = (int) Math.min(size, filled + elapsed);
+	}
+
+	private int previous() {
+		return head == 0 ? received.length - 1 : head - 1;
+	}
+
+	private long peak(long[] values) {
+		long peak = 0;
+		for (long value : values) {
+			if (value > peak) {
+				peak = value;
+			}
+		}
+		return peak;
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "EnergyThroughputMetrics:{" +
+				"size=" + received.length +
+				", averageReceived=" + getAverageReceived() +
+				", averageExtracted=" + getAverageExtracted() + "}";
+	}
+}
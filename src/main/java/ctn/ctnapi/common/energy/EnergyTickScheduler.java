@@ -0,0 +1,77 @@
+package ctn.ctnapi.common.energy;
+
+import ctn.ctnapi.CtnApiMain;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 能量刻末调度器
+ * 收集本刻内需要延迟执行的任务（如合并后的能量变化通知），在服务端刻结束时统一执行。
+ * <br>
+ * 只能在服务端线程中使用，调用方负责去重（同一刻内同一对象只提交一次）。
+ */
+@EventBusSubscriber(modid = CtnApiMain.CAID)
+public class EnergyTickScheduler {
+	/**
+	 * 单次执行的最大轮数，避免任务互相提交导致死循环
+	 */
+	private static final int MAX_ROUNDS = 8;
+	private static List<Runnable> pending = new ArrayList<>();
+	private static List<Runnable> flushing = new ArrayList<>();
+
+	/**
+	 * 提交一个在本刻结束时执行的任务
+	 *
+	 * @param task 任务
+	 */
+	public static void schedule(Runnable task) {
+		pending.add(task);
+	}
+
+	/**
+	 * 立即执行所有已提交的任务
+	 * <br>
+	 * 执行过程中提交的任务会在本次一并执行（最多 {@value #MAX_ROUNDS} 轮，其余留到下一刻）
+	 */
+	public static void flush() {
+		for (int round = 0; round < MAX_ROUNDS && !pending.isEmpty(); round++) {
+			List<Runnable> tasks = pending;
+			pending = flushing;
+			flushing = tasks;
+			for (int i = 0, size = tasks.size(); i < size; i++) {
+				try {
+					tasks.get(i).run();
+				} catch (Exception e) {
+					CtnApiMain.LOGGER.error("Error occurred in EnergyTickScheduler task", e);
+				}
+			}
+			tasks.clear();
+		}
+	}
+
+	/**
+	 * 服务端刻结束时执行所有任务
+	 *
+	 * @param event 服务端刻事件
+	 */
+	@SubscribeEvent
+	public static void onServerTick(ServerTickEvent.Post event) {
+		flush();
+	}
+
+	/**
+	 * 服务端停止后丢弃未执行的任务
+	 *
+	 * @param event 服务端停止事件
+	 */
+	@SubscribeEvent
+	public static void onServerStopped(ServerStoppedEvent event) {
+		pending.clear();
+		flushing.clear();
+	}
+}
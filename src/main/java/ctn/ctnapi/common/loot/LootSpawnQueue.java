@@ -0,0 +1,216 @@
+package ctn.ctnapi.common.loot;
+
+import ctn.ctnapi.CtnApiMain;
+import ctn.ctnapi.util.ItemStackMerger;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 战利品生成队列
+ * 每个服务端世界一个，将物品实体的生成分散到多个刻中，每刻最多生成预算数量的物品实体，
+ * 避免大范围爆炸或采石场倾倒时同一刻生成数百个实体。
+ * <br>
+ * 同一位置排队的物品在生成前会合并，按位置先入先出生成。服务器关闭或世界卸载时会立即生成所有剩余物品。
+ * <br>
+ * 只能在服务端线程中使用。
+ */
+@EventBusSubscriber(modid = CtnApiMain.CAID)
+public class LootSpawnQueue {
+	/**
+	 * 默认每刻生成的物品实体数量
+	 */
+	public static final int DEFAULT_BUDGET = 32;
+	private static final Map<ServerLevel, LootSpawnQueue> QUEUES = new IdentityHashMap<>();
+
+	private final ServerLevel level;
+	private final Map<Vec3, Pending> pending = new LinkedHashMap<>();
+	private int budget = DEFAULT_BUDGET;
+
+	private LootSpawnQueue(ServerLevel level) {
+		this.level = level;
+	}
+
+	/**
+	 * 获取世界的战利品生成队列
+	 *
+	 * @param level 服务端世界
+	 * @return 战利品生成队列
+	 * @throws IllegalStateException 当不在服务端线程中调用时抛出
+	 */
+	public static LootSpawnQueue get(@NotNull ServerLevel level) {
+		if (!level.getServer().isSameThread()) {
+			throw new IllegalStateException("LootSpawnQueue can only be used on the server thread");
+		}
+		return QUEUES.computeIfAbsent(level, LootSpawnQueue::new);
+	}
+
+	/**
+	 * 世界每刻结束时按预算生成物品实体
+	 *
+	 * @param event 世界刻事件
+	 */
+	@SubscribeEvent
+	public static void onLevelTick(LevelTickEvent.Post event) {
+		if (event.getLevel() instanceof ServerLevel serverLevel) {
+			LootSpawnQueue queue = QUEUES.get(serverLevel);
+			if (queue != null) {
+				queue.tick();
+			}
+		}
+	}
+
+	/**
+	 * 服务器关闭时生成所有剩余物品，使其随世界一起保存
+	 *
+	 * @param event 服务器关闭事件
+	 */
+	@SubscribeEvent
+	public static void onServerStopping(ServerStoppingEvent event) {
+		for (LootSpawnQueue queue : QUEUES.values()) {
+			queue.flush();
+		}
+	}
+
+	/**
+	 * 世界卸载时生成所有剩余物品后移除队列，此时区块仍然加载，物品会随世界一起保存
+	 *
+	 * @param event 世界卸载事件
+	 */
+	@SubscribeEvent
+	public static void onLevelUnload(LevelEvent.Unload event) {
+		if (event.getLevel() instanceof ServerLevel serverLevel) {
+			LootSpawnQueue queue = QUEUES.remove(serverLevel);
+			if (queue != null) {
+				queue.flush();
+			}
+		}
+	}
+
+	/**
+	 * 将物品加入队列
+	 *
+	 * @param x          X坐标
+	 * @param y          Y坐标
+	 * @param z          Z坐标
+	 * @param itemStacks 物品堆栈，会被复制
+	 */
+	public void enqueue(double x, double y, double z, ItemStack... itemStacks) {
+		Pending entry = null;
+		for (ItemStack itemStack : itemStacks) {
+			if (itemStack == null || itemStack.isEmpty()) {
+				continue;
+			}
+			if (entry == null) {
+				entry = pending.computeIfAbsent(new Vec3(x, y, z), Pending::new);
+			}
+			entry.merger.add(itemStack);
+		}
+	}
+
+	/**
+	 * 按预算生成物品实体
+	 */
+	public void tick() {
+		spawn(budget);
+	}
+
+	/**
+	 * 立即生成所有排队的物品实体
+	 */
+	public void flush() {
+		spawn(Integer.MAX_VALUE);
+	}
+
+	private void spawn(int limit) {
+		int spawned = 0;
+		Iterator<Pending> iterator = pending.values().iterator();
+		while (spawned < limit && iterator.hasNext()) {
+			Pending entry = iterator.next();
+			entry.prepare();
+			while (spawned < limit && !entry.ready.isEmpty()) {
+				ItemStack itemStack = entry.ready.poll();
+				level.addFreshEntity(new ItemEntity(level, entry.pos.x, entry.pos.y, entry.pos.z, itemStack));
+				spawned++;
+			}
+			if (entry.ready.isEmpty()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * 获取每刻生成的物品实体数量
+	 *
+	 * @return 预算
+	 */
+	public int getBudget() {
+		return budget;
+	}
+
+	/**
+	 * 设置每刻生成的物品实体数量
+	 *
+	 * @param budget 预算，至少为 1
+	 */
+	public void setBudget(int budget) {
+		this.budget = Math.max(1, budget);
+	}
+
+	/**
+	 * 队列是否为空
+	 *
+	 * @return 是否为空
+	 */
+	public boolean isEmpty() {
+		return pending.isEmpty();
+	}
+
+	/**
+	 * 获取排队的位置数量
+	 *
+	 * @return 位置数量
+	 */
+	public int size() {
+		return pending.size();
+	}
+
+	/**
+	 * 同一位置排队的物品
+	 */
+	private static final class Pending {
+		private final Vec3 pos;
+		/**
+		 * 尚未拆分的物品，新加入的物品与之合并
+		 */
+		private final ItemStackMerger merger = new ItemStackMerger();
+		/**
+		 * 已拆分等待生成的物品堆栈
+		 */
+		private final ArrayDeque<ItemStack> ready = new ArrayDeque<>();
+
+		private Pending(Vec3 pos) {
+			this.pos = pos;
+		}
+
+		private void prepare() {
+			if (!merger.isEmpty()) {
+				merger.forEachStack(ready::add);
+				merger.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package ctn.ctnapi.common.payloads;
+
+import ctn.ctnapi.capability.IModEnergyStorage;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.VarInt;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.world.level.Level;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+import java.util.Arrays;
+
+/**
+ * 区段能源存储批量数据包
+ * 一个区块区段内所有变化的能量存储合并为一个数据包，
+ * 位置以区段内相对坐标压缩为 short 编码，配合 {@link EnergySyncBatcher} 使用
+ */
+public abstract class EnergyStorageBulkData implements CustomPacketPayload {
+	/**
+	 * 单个数据包的最大条目数（一个区段的方块数）
+	 */
+	public static final int MAX_ENTRIES = 4096;
+
+	private final SectionPos section;
+	private final short[] positions;
+	private final EnergyStorageDelta[] deltas;
+
+	/**
+	 * 构造函数
+	 *
+	 * @param section   区段位置
+	 * @param positions 区段内相对坐标（{@link SectionPos#sectionRelativePos}）
+	 * @param deltas    与坐标一一对应的能量存储增量数据
+	 */
+	public EnergyStorageBulkData(SectionPos section, short[] positions, EnergyStorageDelta[] deltas) {
+		if (positions.length != deltas.length) {
+			throw new IllegalArgumentException("positions and deltas must have the same length");
+		}
+		this.section = section;
+		this.positions = positions;
+		this.deltas = deltas;
+	}
+
+	/**
+	 * 创建批量数据包的流编解码器
+	 *
+	 * @param factory 数据包构造函数
+	 * @param <T>     数据包类型
+	 * @return 流编解码器
+	 */
+	public static <T extends EnergyStorageBulkData> StreamCodec<ByteBuf, T> streamCodec(Factory<T> factory) {
+		return StreamCodec.of((buf, data) -> data.write(buf), buf -> {
+			EnergyStorageDelta.readVersion(buf);
+			SectionPos section = SectionPos.of(buf.readLong());
+			int size = VarInt.read(buf);
+			if (size < 0 || size > MAX_ENTRIES) {
+				throw new DecoderException("Invalid EnergyStorageBulkData size " + size);
+			}
+			short[] positions = new short[size];
+			EnergyStorageDelta[] deltas = new EnergyStorageDelta[size];
+			for (int i = 0; i < size; i++) {
+				positions[i] = buf.readShort();
+				deltas[i] = EnergyStorageDelta.readBody(buf);
+			}
+			return factory.create(section, positions, deltas);
+		});
+	}
+
+	/**
+	 * 发送到客户端，所有条目在同一个任务中应用
+	 *
+	 * @param data    批量数据
+	 * @param context 数据包上下文
+	 */
+	public static void toClient(final EnergyStorageBulkData data, final IPayloadContext context) {
+		context.enqueueWork(() -> {
+			Level level = context.player().level();
+			for (int i = 0; i < data.positions.length; i++) {
+				var capability = level.getCapability(Capabilities.EnergyStorage.BLOCK,
+						data.section.relativeToBlockPos(data.positions[i]), null);
+				if (capability instanceof IModEnergyStorage iModEnergyStorage) {
+					data.deltas[i].applyTo(iModEnergyStorage);
+				}
+			}
+		});
+	}
+
+	/**
+	 * 写入缓冲区
+	 *
+	 * @param buf 缓冲区
+	 */
+	public void write(ByteBuf buf) {
+		buf.writeByte(EnergyStorageDelta.VERSION);
+		buf.writeLong(section.asLong());
+		VarInt.write(buf, positions.length);
+		for (int i = 0; i < positions.length; i++) {
+			buf.writeShort(positions[i]);
+			deltas[i].writeBody(buf);
+		}
+	}
+
+	/**
+	 * 获取区段位置
+	 *
+	 * @return 区段位置
+	 */
+	public SectionPos section() {
+		return section;
+	}
+
+	/**
+	 * 获取条目数量
+	 *
+	 * @return 条目数量
+	 */
+	public int size() {
+		return positions.length;
+	}
+
+	/**
+	 * 获取区段内相对坐标
+	 *
+	 * @param index 条目索引
+	 * @return 压缩的相对坐标
+	 */
+	public short position(int index) {
+		return positions[index];
+	}
+
+	/**
+	 * 获取能量存储增量数据
+	 *
+	 * @param index 条目索引
+	 * @return 增量数据
+	 */
+	public EnergyStorageDelta delta(int index) {
+		return deltas[index];
+	}
+
+	/**
+	 * 检查是否与另一个对象相等
+	 *
+	 * @param obj 比较对象
+	 * @return 是否相等
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) return true;
+		if (obj == null || obj.getClass() != this.getClass()) return false;
+		var that = (EnergyStorageBulkData) obj;
+		return this.section.equals(that.section) &&
+				Arrays.equals(this.positions, that.positions) &&
+				Arrays.equals(this.deltas, that.deltas);
+	}
+
+	/**
+	 * 获取哈希码
+	 *
+	 * @return 哈希码
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * (31 * section.hashCode() + Arrays.hashCode(positions)) + Arrays.hashCode(deltas);
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "EnergyStorageBulkData[" +
+				"section=" + section + ", " +
+				"size=" + positions.length + ']';
+	}
+
+	/**
+	 * 获取数据包类型
+	 *
+	 * @return 数据包类型
+	 */
+	@Override
+	public abstract Type<? extends CustomPacketPayload> type();
+
+	/**
+	 * 批量数据包构造函数
+	 *
+	 * @param <T> 数据包类型
+	 */
+	@FunctionalInterface
+	public interface Factory<T extends EnergyStorageBulkData> {
+		/**
+		 * 创建数据包
+		 *
+		 * @param section   区段位置
+		 * @param positions 区段内相对坐标
+		 * @param deltas    能量存储增量数据
+		 * @return 数据包
+		 */
+		T create(SectionPos section, short[] positions, EnergyStorageDelta[] deltas);
+	}
+}
@@ -1,7 +1,9 @@
 package ctn.ctnapi.common.payloads;
 
 import ctn.ctnapi.adapter.ModEnergyStorage;
+import ctn.ctnapi.adapter.ModLongEnergyStorage;
 import ctn.ctnapi.capability.IModEnergyStorage;
+import ctn.ctnapi.capability.IModLongEnergyStorage;
 import ctn.ctnapi.util.EnergyUtil;
 import io.netty.buffer.ByteBuf;
 import net.minecraft.core.BlockPos;
@@ -38,6 +40,16 @@ public abstract class EnergyStorageData implements CustomPacketPayload {
 			ByteBufCodecs.VAR_INT, IModEnergyStorage::getEnergyStored,
 			ModEnergyStorage::new);
 
+	/**
+	 * 64位能量存储的流编解码器
+	 */
+	public static final StreamCodec<ByteBuf, IModLongEnergyStorage> LONG_ENERGY_STORAGE_STREAM = StreamCodec.composite(
+			ByteBufCodecs.VAR_LONG, IModLongEnergyStorage::getMaxEnergyStoredLong,
+			ByteBufCodecs.VAR_LONG, IModLongEnergyStorage::getMaxReceiveLong,
+			ByteBufCodecs.VAR_LONG, IModLongEnergyStorage::getMaxExtractLong,
+			ByteBufCodecs.VAR_LONG, IModLongEnergyStorage::getEnergyStoredLong,
+			ModLongEnergyStorage::new);
+
 	private final BlockPos pos;
 	private final IModEnergyStorage iModEnergyStorage;
 
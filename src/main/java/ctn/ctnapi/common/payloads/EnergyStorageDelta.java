@@ -0,0 +1,196 @@
+package ctn.ctnapi.common.payloads;
+
+import ctn.ctnapi.adapter.ExtrapolatingModEnergyStorage;
+import ctn.ctnapi.adapter.ModEnergyStorage;
+import ctn.ctnapi.capability.IModEnergyStorage;
+import ctn.ctnapi.common.data_compoent.ModComponentEnergyStorage;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.VarInt;
+import net.minecraft.network.codec.StreamCodec;
+
+/**
+ * 能量存储增量数据
+ * 只包含发生变化的字段，由位掩码头部标记
+ * <br>
+ * 编码格式：版本字节、掩码字节，随后按掩码顺序写入各字段的 VarInt（速率为 ZigZag 编码）
+ *
+ * @param mask            字段掩码
+ * @param maxEnergyStored 最大能量存储值
+ * @param maxReceive      最大接收值
+ * @param maxExtract      最大提取值
+ * @param energyStored    能量存储值
+ * @param rate            能量变化速率（每刻），用于客户端预测
+ */
+public record EnergyStorageDelta(int mask, int maxEnergyStored, int maxReceive, int maxExtract, int energyStored,
+                                 int rate) {
+	/**
+	 * 编码格式版本
+	 */
+	public static final int VERSION = 1;
+	/**
+	 * 最大能量存储值字段
+	 */
+	public static final int MAX_ENERGY_STORED = 1;
+	/**
+	 * 最大接收值字段
+	 */
+	public static final int MAX_RECEIVE = 1 << 1;
+	/**
+	 * 最大提取值字段
+	 */
+	public static final int MAX_EXTRACT = 1 << 2;
+	/**
+	 * 能量存储值字段
+	 */
+	public static final int ENERGY_STORED = 1 << 3;
+	/**
+	 * 能量变化速率字段（可选）
+	 */
+	public static final int RATE = 1 << 4;
+	/**
+	 * 所有必需字段
+	 */
+	public static final int ALL = MAX_ENERGY_STORED | MAX_RECEIVE | MAX_EXTRACT | ENERGY_STORED;
+
+	/**
+	 * 能量存储增量数据的流编解码器
+	 */
+	public static final StreamCodec<ByteBuf, EnergyStorageDelta> STREAM = StreamCodec.of(
+			(buf, delta) -> delta.write(buf), EnergyStorageDelta::read);
+
+	/**
+	 * 构造函数，不包含速率
+	 *
+	 * @param mask            字段掩码
+	 * @param maxEnergyStored 最大能量存储值
+	 * @param maxReceive      最大接收值
+	 * @param maxExtract      最大提取值
+	 * @param energyStored    能量存储值
+	 */
+	public EnergyStorageDelta(int mask, int maxEnergyStored, int maxReceive, int maxExtract, int energyStored) {
+		this(mask & ~RATE, maxEnergyStored, maxReceive, maxExtract, energyStored, 0);
+	}
+
+	/**
+	 * 从能量存储创建包含所有字段的增量数据
+	 *
+	 * @param energyStorage 能量存储实例
+	 * @return 增量数据
+	 */
+	public static EnergyStorageDelta full(IModEnergyStorage energyStorage) {
+		return new EnergyStorageDelta(ALL, energyStorage.getMaxEnergyStored(), energyStorage.getMaxReceive(),
+				energyStorage.getMaxExtract(), energyStorage.getEnergyStored());
+	}
+
+	/**
+	 * 从缓冲区读取
+	 *
+	 * @param buf 缓冲区
+	 * @return 增量数据
+	 */
+	public static EnergyStorageDelta read(ByteBuf buf) {
+		readVersion(buf);
+		return readBody(buf);
+	}
+
+	/**
+	 * 读取并校验版本字节
+	 *
+	 * @param buf 缓冲区
+	 * @return 版本
+	 */
+	public static int readVersion(ByteBuf buf) {
+		int version = buf.readUnsignedByte();
+		if (version > VERSION) {
+			throw new DecoderException("Unsupported EnergyStorageDelta version " + version);
+		}
+		return version;
+	}
+
+	/**
+	 * 从缓冲区读取不含版本字节的数据
+	 *
+	 * @param buf 缓冲区
+	 * @return 增量数据
+	 */
+	public static EnergyStorageDelta readBody(ByteBuf buf) {
+		int mask = buf.readUnsignedByte();
+		int maxEnergyStored = (mask & MAX_ENERGY_STORED) != 0 ? VarInt.read(buf) : 0;
+		int maxReceive = (mask & MAX_RECEIVE) != 0 ? VarInt.read(buf) : 0;
+		int maxExtract = (mask & MAX_EXTRACT) != 0 ? VarInt.read(buf) : 0;
+		int energyStored = (mask & ENERGY_STORED) != 0 ? VarInt.read(buf) : 0;
+		int rate = 0;
+		if ((mask & RATE) != 0) {
+			int zigZag = VarInt.read(buf);
+			rate = (zigZag >>> 1) ^ -(zigZag & 1);
+		}
+		return new EnergyStorageDelta(mask, maxEnergyStored, maxReceive, maxExtract, energyStored, rate);
+	}
+
+	/**
+	 * 写入缓冲区
+	 *
+	 * @param buf 缓冲区
+	 */
+	public void write(ByteBuf buf) {
+		buf.writeByte(VERSION);
+		writeBody(buf);
+	}
+
+	/**
+	 * 写入不含版本字节的数据
+	 *
+	 * @param buf 缓冲区
+	 */
+	public void writeBody(ByteBuf buf) {
+		buf.writeByte(mask);
+		if ((mask & MAX_ENERGY_STORED) != 0) VarInt.write(buf, maxEnergyStored);
+		if ((mask & MAX_RECEIVE) != 0) VarInt.write(buf, maxReceive);
+		if ((mask & MAX_EXTRACT) != 0) VarInt.write(buf, maxExtract);
+		if ((mask & ENERGY_STORED) != 0) VarInt.write(buf, energyStored);
+		if ((mask & RATE) != 0) VarInt.write(buf, (rate << 1) ^ (rate >> 31));
+	}
+
+	/**
+	 * 是否包含指定字段
+	 *
+	 * @param field 字段掩码
+	 * @return 是否包含
+	 */
+	public boolean has(int field) {
+		return (mask & field) != 0;
+	}
+
+	/**
+	 * 将增量应用到能量存储，未包含的字段保持不变
+	 *
+	 * @param energyStorage 能量存储实例
+	 */
+	public void applyTo(IModEnergyStorage energyStorage) {
+		if ((mask & ALL) == 0) {
+			if (has(RATE) && energyStorage instanceof ExtrapolatingModEnergyStorage extrapolating) {
+				extrapolating.setRate(rate);
+			}
+			return;
+		}
+		int maxEnergyStored = has(MAX_ENERGY_STORED) ? this.maxEnergyStored : energyStorage.getMaxEnergyStored();
+		int maxReceive = has(MAX_RECEIVE) ? this.maxReceive : energyStorage.getMaxReceive();
+		int maxExtract = has(MAX_EXTRACT) ? this.maxExtract : energyStorage.getMaxExtract();
+		int energyStored = has(ENERGY_STORED) ? this.energyStored : energyStorage.getEnergyStored();
+		switch (energyStorage) {
+			case ExtrapolatingModEnergyStorage extrapolating -> extrapolating.snap(maxEnergyStored, maxReceive,
+					maxExtract, energyStored, has(RATE) ? rate : extrapolating.getRate());
+			case ModEnergyStorage modEnergyStorage ->
+					modEnergyStorage.setEnergyStored(maxEnergyStored, maxReceive, maxExtract, energyStored);
+			case ModComponentEnergyStorage componentEnergyStorage ->
+					componentEnergyStorage.setEnergyStored(maxEnergyStored, maxReceive, maxExtract, energyStored);
+			default -> {
+				if (has(MAX_ENERGY_STORED)) energyStorage.setMaxEnergyStored(maxEnergyStored);
+				if (has(MAX_RECEIVE)) energyStorage.setMaxReceive(maxReceive);
+				if (has(MAX_EXTRACT)) energyStorage.setMaxExtract(maxExtract);
+				if (has(ENERGY_STORED)) energyStorage.setEnergy(energyStored);
+			}
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package ctn.ctnapi.common.payloads;
+
+import ctn.ctnapi.capability.IModEnergyStorage;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+import java.util.Objects;
+
+/**
+ * 能源存储增量数据包
+ * 只发送发生变化的字段，配合 {@link EnergySyncTracker} 使用
+ */
+public abstract class EnergyStorageDeltaData implements CustomPacketPayload {
+	private final BlockPos pos;
+	private final EnergyStorageDelta delta;
+
+	/**
+	 * 构造函数
+	 *
+	 * @param pos   方块位置
+	 * @param delta 能量存储增量数据
+	 */
+	public EnergyStorageDeltaData(BlockPos pos, EnergyStorageDelta delta) {
+		this.pos = pos;
+		this.delta = delta;
+	}
+
+	/**
+	 * 发送到客户端
+	 *
+	 * @param data    能量存储增量数据
+	 * @param context 数据包上下文
+	 */
+	public static void toClient(final EnergyStorageDeltaData data, final IPayloadContext context) {
+		context.enqueueWork(() -> {
+			Player player = context.player();
+			var capability = player.level().getCapability(Capabilities.EnergyStorage.BLOCK, data.pos, null);
+			if (!(capability instanceof IModEnergyStorage iModEnergyStorage)) {
+				return;
+			}
+			data.delta.applyTo(iModEnergyStorage);
+		});
+	}
+
+	/**
+	 * 获取方块位置
+	 *
+	 * @return 方块位置
+	 */
+	public BlockPos pos() {
+		return pos;
+	}
+
+	/**
+	 * 获取能量存储增量数据
+	 *
+	 * @return 能量存储增量数据
+	 */
+	public EnergyStorageDelta delta() {
+		return delta;
+	}
+
+	/**
+	 * 检查是否与另一个对象相等
+	 *
+	 * @param obj 比较对象
+	 * @return 是否相等
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) return true;
+		if (obj == null || obj.getClass() != this.getClass()) return false;
+		var that = (EnergyStorageDeltaData) obj;
+		return Objects.equals(this.pos, that.pos) &&
+				Objects.equals(this.delta, that.delta);
+	}
+
+	/**
+	 * 获取哈希码
+	 *
+	 * @return 哈希码
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(pos, delta);
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "EnergyStorageDeltaData[" +
+				"pos=" + pos + ", " +
+				"delta=" + delta + ']';
+	}
+
+	/**
+	 * 获取数据包类型
+	 *
+	 * @return 数据包类型
+	 */
+	@Override
+	public abstract Type<? extends CustomPacketPayload> type();
+}
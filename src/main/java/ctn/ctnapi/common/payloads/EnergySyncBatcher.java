@@ -0,0 +1,115 @@
+package ctn.ctnapi.common.payloads;
+
+import ctn.ctnapi.CtnApiMain;
+import ctn.ctnapi.capability.IModEnergyStorage;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * 能量同步批处理器
+ * 收集本刻内标记为变化的能量存储，在服务端刻结束时按区块区段合并，
+ * 每个区段向追踪该区块的玩家各发送一个 {@link EnergyStorageBulkData}。只能在服务端线程中使用。
+ */
+@EventBusSubscriber(modid = CtnApiMain.CAID)
+public class EnergySyncBatcher {
+	private static final Set<EnergySyncBatcher> BATCHERS = Collections.newSetFromMap(new WeakHashMap<>());
+
+	private final EnergyStorageBulkData.Factory<?> factory;
+	private final Map<ServerLevel, Long2ObjectOpenHashMap<Short2ObjectOpenHashMap<IModEnergyStorage>>> dirty =
+			new IdentityHashMap<>();
+
+	/**
+	 * 构造函数
+	 *
+	 * @param factory 批量数据包构造函数
+	 */
+	public EnergySyncBatcher(EnergyStorageBulkData.Factory<?> factory) {
+		this.factory = factory;
+		BATCHERS.add(this);
+	}
+
+	/**
+	 * 服务端刻结束时发送所有批量数据包
+	 *
+	 * @param event 服务端刻事件
+	 */
+	@SubscribeEvent
+	public static void onServerTick(ServerTickEvent.Post event) {
+		for (EnergySyncBatcher batcher : BATCHERS) {
+			batcher.flush();
+		}
+	}
+
+	/**
+	 * 世界卸载时丢弃未发送的数据
+	 *
+	 * @param event 世界卸载事件
+	 */
+	@SubscribeEvent
+	public static void onLevelUnload(LevelEvent.Unload event) {
+		if (event.getLevel() instanceof ServerLevel serverLevel) {
+			for (EnergySyncBatcher batcher : BATCHERS) {
+				batcher.dirty.remove(serverLevel);
+			}
+		}
+	}
+
+	/**
+	 * 标记能量存储发生变化，同一刻内同一位置只发送一次
+	 *
+	 * @param level         服务端世界
+	 * @param pos           方块位置
+	 * @param energyStorage 能量存储实例
+	 */
+	public void markDirty(ServerLevel level, BlockPos pos, IModEnergyStorage energyStorage) {
+		dirty.computeIfAbsent(level, l -> new Long2ObjectOpenHashMap<>())
+				.computeIfAbsent(SectionPos.asLong(pos), section -> new Short2ObjectOpenHashMap<>())
+				.put(SectionPos.sectionRelativePos(pos), energyStorage);
+	}
+
+	/**
+	 * 立即发送所有批量数据包
+	 */
+	public void flush() {
+		if (dirty.isEmpty()) {
+			return;
+		}
+		for (var levelEntry : dirty.entrySet()) {
+			ServerLevel level = levelEntry.getKey();
+			for (Long2ObjectMap.Entry<Short2ObjectOpenHashMap<IModEnergyStorage>> sectionEntry :
+					levelEntry.getValue().long2ObjectEntrySet()) {
+				var storages = sectionEntry.getValue();
+				int size = storages.size();
+				short[] positions = new short[size];
+				EnergyStorageDelta[] deltas = new EnergyStorageDelta[size];
+				int i = 0;
+				for (Short2ObjectMap.Entry<IModEnergyStorage> entry : storages.short2ObjectEntrySet()) {
+					positions[i] = entry.getShortKey();
+					deltas[i] = EnergyStorageDelta.full(entry.getValue());
+					i++;
+				}
+				SectionPos section = SectionPos.of(sectionEntry.getLongKey());
+				PacketDistributor.sendToPlayersTrackingChunk(level, new ChunkPos(section.x(), section.z()),
+						factory.create(section, positions, deltas));
+			}
+		}
+		dirty.clear();
+	}
+}
@@ -0,0 +1,343 @@
+package ctn.ctnapi.common.payloads;
+
+import ctn.ctnapi.CtnApiMain;
+import ctn.ctnapi.capability.IModEnergyStorage;
+import ctn.ctnapi.util.PayloadUtil;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.level.ChunkWatchEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * 能量同步跟踪器
+ * 按玩家、维度与位置记录上一次发送给客户端的能量数据，只在字段变化时生成增量，
+ * 并对能量值的变化应用最小间隔与最小变化量限制。
+ * <br>
+ * 位置属于玩家所在的维度。玩家切换维度、重生或客户端不再追踪区块时清除对应记录，之后重新发送完整数据。
+ * <br>
+ * 容量与传输上限的变化、能量变为空或满时总是立即发送。只能在服务端线程中使用。
+ * <br>
+ * 开启速率后会附带每刻的能量变化速率，客户端使用 {@link ctn.ctnapi.adapter.ExtrapolatingModEnergyStorage}
+ * 在两次同步之间预测能量，从而可以使用较大的发送间隔。
+ */
+@EventBusSubscriber(modid = CtnApiMain.CAID)
+public class EnergySyncTracker {
+	private static final Set<EnergySyncTracker> TRACKERS = Collections.newSetFromMap(new WeakHashMap<>());
+
+	private final Map<UUID, Map<ResourceKey<Level>, Long2ObjectOpenHashMap<Entry>>> players = new HashMap<>();
+	private int minInterval;
+	private int minEnergyChange;
+	private boolean sendRate;
+
+	/**
+	 * 构造函数
+	 *
+	 * @param minInterval     两次发送能量值之间的最小间隔（刻）
+	 * @param minEnergyChange 发送能量值所需的最小变化量
+	 */
+	public EnergySyncTracker(int minInterval, int minEnergyChange) {
+		this.minInterval = Math.max(0, minInterval);
+		this.minEnergyChange = Math.max(1, minEnergyChange);
+		TRACKERS.add(this);
+	}
+
+	/**
+	 * 构造函数
+	 *
+	 * @param minInterval     两次发送能量值之间的最小间隔（刻）
+	 * @param minEnergyChange 发送能量值所需的最小变化量
+	 * @param sendRate        是否附带能量变化速率
+	 */
+	public EnergySyncTracker(int minInterval, int minEnergyChange, boolean sendRate) {
+		this(minInterval, minEnergyChange);
+		this.sendRate = sendRate;
+	}
+
+	/**
+	 * 玩家退出时清除记录
+	 *
+	 * @param event 玩家退出事件
+	 */
+	@SubscribeEvent
+	public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+		UUID uuid = event.getEntity().getUUID();
+		for (EnergySyncTracker tracker : TRACKERS) {
+			tracker.players.remove(uuid);
+		}
+	}
+
+	/**
+	 * 玩家切换维度时清除记录，客户端会重新创建世界
+	 *
+	 * @param event 玩家切换维度事件
+	 */
+	@SubscribeEvent
+	public static void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+		UUID uuid = event.getEntity().getUUID();
+		for (EnergySyncTracker tracker : TRACKERS) {
+			tracker.players.remove(uuid);
+		}
+	}
+
+	/**
+	 * 玩家重生时清除记录
+	 *
+	 * @param event 玩家重生事件
+	 */
+	@SubscribeEvent
+	public static void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
+		UUID uuid = event.getEntity().getUUID();
+		for (EnergySyncTracker tracker : TRACKERS) {
+			tracker.players.remove(uuid);
+		}
+	}
+
+	/**
+	 * 客户端不再追踪区块时清除区块内的记录，区块重新加载后将发送完整数据
+	 *
+	 * @param event 区块停止追踪事件
+	 */
+	@SubscribeEvent
+	public static void onChunkUnWatch(ChunkWatchEvent.UnWatch event) {
+		UUID uuid = event.getPlayer().getUUID();
+		ResourceKey<Level> dimension = event.getLevel().dimension();
+		ChunkPos chunkPos = event.getPos();
+		for (EnergySyncTracker tracker : TRACKERS) {
+			tracker.forget(uuid, dimension, chunkPos);
+		}
+	}
+
+	/**
+	 * 计算需要发送给玩家的增量数据，并记录为已发送
+	 *
+	 * @param player        玩家
+	 * @param pos           方块位置
+	 * @param energyStorage 能量存储实例
+	 * @return 增量数据，无需发送时返回 null
+	 */
+	@Nullable
+	public EnergyStorageDelta update(ServerPlayer player, BlockPos pos, IModEnergyStorage energyStorage) {
+		long gameTime = player.level().getGameTime();
+		var entries = players.computeIfAbsent(player.getUUID(), uuid -> new HashMap<>(2))
+				.computeIfAbsent(player.level().dimension(), dimension -> new Long2ObjectOpenHashMap<>());
+		Entry entry = entries.get(pos.asLong());
+		if (entry == null) {
+			EnergyStorageDelta delta = EnergyStorageDelta.full(energyStorage);
+			entries.put(pos.asLong(), new Entry(delta, gameTime));
+			return delta;
+		}
+
+		int maxEnergyStored = energyStorage.getMaxEnergyStored();
+		int maxReceive = energyStorage.getMaxReceive();
+		int maxExtract = energyStorage.getMaxExtract();
+		int energyStored = energyStorage.getEnergyStored();
+		long elapsed = gameTime - entry.lastSent;
+		boolean intervalDue = elapsed >= minInterval;
+		int mask = 0;
+		if (maxEnergyStored != entry.maxEnergyStored) mask |= EnergyStorageDelta.MAX_ENERGY_STORED;
+		if (maxReceive != entry.maxReceive) mask |= EnergyStorageDelta.MAX_RECEIVE;
+		if (maxExtract != entry.maxExtract) mask |= EnergyStorageDelta.MAX_EXTRACT;
+		if (energyStored != entry.energyStored) {
+			boolean boundary = energyStored == 0 || energyStored >= maxEnergyStored;
+			boolean due = intervalDue && Math.abs((long) energyStored - entry.energyStored) >= minEnergyChange;
+			if (mask != 0 || boundary || due) mask |= EnergyStorageDelta.ENERGY_STORED;
+		} else if (sendRate && entry.rate != 0 && intervalDue) {
+			// 能量停止变化时通知客户端停止预测
+			mask |= EnergyStorageDelta.ENERGY_STORED;
+		}
+		int rate = entry.rate;
+		if (sendRate && (mask & EnergyStorageDelta.ENERGY_STORED) != 0) {
+			rate = elapsed > 0 ? (int) (((long) energyStored - entry.energyStored) / elapsed) : entry.rate;
+			if (energyStored == 0 || energyStored >= maxEnergyStored) {
+				rate = 0;
+			}
+			if (rate != entry.rate) {
+				mask |= EnergyStorageDelta.RATE;
+			}
+		}
+		if (mask == 0) {
+			return null;
+		}
+
+		entry.maxEnergyStored = maxEnergyStored;
+		entry.maxReceive = maxReceive;
+		entry.maxExtract = maxExtract;
+		if ((mask & EnergyStorageDelta.ENERGY_STORED) != 0) {
+			entry.energyStored = energyStored;
+			entry.lastSent = gameTime;
+		}
+		entry.rate = rate;
+		return new EnergyStorageDelta(mask, maxEnergyStored, maxReceive, maxExtract, energyStored, rate);
+	}
+
+	/**
+	 * 计算增量数据并在需要时发送给玩家
+	 *
+	 * @param player        玩家
+	 * @param pos           方块位置
+	 * @param energyStorage 能量存储实例
+	 * @param factory       根据位置与增量创建数据包
+	 * @return 是否发送了数据包
+	 */
+	public boolean sync(ServerPlayer player, BlockPos pos, IModEnergyStorage energyStorage,
+	                    BiFunction<BlockPos, EnergyStorageDelta, ? extends CustomPacketPayload> factory) {
+		EnergyStorageDelta delta = update(player, pos, energyStorage);
+		if (delta == null) {
+			return false;
+		}
+		PayloadUtil.sendToClient(player, factory.apply(pos, delta));
+		return true;
+	}
+
+	/**
+	 * 清除玩家在指定位置的记录（如关闭界面时），下次将发送完整数据
+	 *
+	 * @param player 玩家
+	 * @param pos    方块位置
+	 */
+	public void forget(ServerPlayer player, BlockPos pos) {
+		var dimensions = players.get(player.getUUID());
+		if (dimensions == null) {
+			return;
+		}
+		var entries = dimensions.get(player.level().dimension());
+		if (entries != null) {
+			entries.remove(pos.asLong());
+			if (entries.isEmpty()) {
+				removeDimension(player.getUUID(), dimensions, player.level().dimension());
+			}
+		}
+	}
+
+	/**
+	 * 清除玩家在指定区块内的记录
+	 *
+	 * @param uuid      玩家 UUID
+	 * @param dimension 维度
+	 * @param chunkPos  区块坐标
+	 */
+	private void forget(UUID uuid, ResourceKey<Level> dimension, ChunkPos chunkPos) {
+		var dimensions = players.get(uuid);
+		if (dimensions == null) {
+			return;
+		}
+		var entries = dimensions.get(dimension);
+		if (entries == null) {
+			return;
+		}
+		entries.keySet().removeIf((long packed) ->
+				SectionPos.blockToSectionCoord(BlockPos.getX(packed)) == chunkPos.x &&
+						SectionPos.blockToSectionCoord(BlockPos.getZ(packed)) == chunkPos.z);
+		if (entries.isEmpty()) {
+			removeDimension(uuid, dimensions, dimension);
+		}
+	}
+
+	private void removeDimension(UUID uuid, Map<ResourceKey<Level>, Long2ObjectOpenHashMap<Entry>> dimensions,
+	                             ResourceKey<Level> dimension) {
+		dimensions.remove(dimension);
+		if (dimensions.isEmpty()) {
+			players.remove(uuid);
+		}
+	}
+
+	/**
+	 * 清除玩家的所有记录
+	 *
+	 * @param player 玩家
+	 */
+	public void forget(ServerPlayer player) {
+		players.remove(player.getUUID());
+	}
+
+	/**
+	 * 获取最小发送间隔
+	 *
+	 * @return 最小间隔（刻）
+	 */
+	public int getMinInterval() {
+		return minInterval;
+	}
+
+	/**
+	 * 设置最小发送间隔
+	 *
+	 * @param minInterval 最小间隔（刻）
+	 */
+	public void setMinInterval(int minInterval) {
+		this.minInterval = Math.max(0, minInterval);
+	}
+
+	/**
+	 * 获取最小能量变化量
+	 *
+	 * @return 最小变化量
+	 */
+	public int getMinEnergyChange() {
+		return minEnergyChange;
+	}
+
+	/**
+	 * 设置最小能量变化量
+	 *
+	 * @param minEnergyChange 最小变化量
+	 */
+	public void setMinEnergyChange(int minEnergyChange) {
+		this.minEnergyChange = Math.max(1, minEnergyChange);
+	}
+
+	/**
+	 * 是否附带能量变化速率
+	 *
+	 * @return 是否附带速率
+	 */
+	public boolean isSendRate() {
+		return sendRate;
+	}
+
+	/**
+	 * 设置是否附带能量变化速率
+	 *
+	 * @param sendRate 是否附带速率
+	 */
+	public void setSendRate(boolean sendRate) {
+		this.sendRate = sendRate;
+	}
+
+	/**
+	 * 已发送给玩家的能量数据
+	 */
+	private static final class Entry {
+		private int maxEnergyStored;
+		private int maxReceive;
+		private int maxExtract;
+		private int energyStored;
+		private long lastSent;
+		private int rate;
+
+		private Entry(EnergyStorageDelta delta, long lastSent) {
+			this.maxEnergyStored = delta.maxEnergyStored();
+			this.maxReceive = delta.maxReceive();
+			this.maxExtract = delta.maxExtract();
+			this.energyStored = delta.energyStored();
+			this.lastSent = lastSent;
+		}
+	}
+}
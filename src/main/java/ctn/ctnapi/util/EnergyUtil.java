@@ -1,7 +1,14 @@
 package ctn.ctnapi.util;
 
 import com.google.common.collect.LinkedListMultimap;
+import ctn.ctnapi.CtnApiMain;
+import ctn.ctnapi.adapter.ModEnergyStorage;
+import ctn.ctnapi.capability.EnergyCapabilityCache;
+import ctn.ctnapi.capability.EnergyNeighbors;
+import ctn.ctnapi.capability.EnergyTransaction;
 import ctn.ctnapi.capability.IModEnergyStorage;
+import ctn.ctnapi.capability.IModLongEnergyStorage;
+import ctn.ctnapi.common.data_compoent.ModComponentEnergyStorage;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.level.Level;
@@ -11,7 +18,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.annotation.Nonnull;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -20,7 +29,6 @@ import java.util.Optional;
  * 提供能量相关的各种实用方法
  */
 public class EnergyUtil {
-
 	/**
 	 * 获取方块方向的对应能接收能量的能量接口
 	 *
@@ -36,17 +44,38 @@ public class EnergyUtil {
 
 	/**
 	 * 控制两个能源槽之间的能量传递
+	 * <br>
+	 * 大量相连的方块请使用 {@link ctn.ctnapi.common.energy.EnergyNetworkManager} 统一分配
+	 * ，向多个邻居输出请使用 {@link #distribute(IEnergyStorage, EnergyNeighbors, DistributionCursor)}
 	 *
 	 * @param extract 被提取
 	 * @param receive 接收的
 	 */
 	public static void controlEnergy(@NotNull IEnergyStorage extract, @NotNull IEnergyStorage receive) {
+		// 无限能量源与能量汇无需模拟，直接由另一方决定传输量
+		if (isInfiniteSource(extract)) {
+			if (receive.canReceive()) receive.receiveEnergy(Integer.MAX_VALUE, false);
+			return;
+		}
+		if (isInfiniteSink(receive)) {
+			if (extract.canExtract()) extract.extractEnergy(Integer.MAX_VALUE, false);
+			return;
+		}
+		if (extract instanceof IModLongEnergyStorage longExtract && receive instanceof IModLongEnergyStorage longReceive) {
+			controlEnergy(longExtract, longReceive);
+			return;
+		}
 		int energyStored = extract.getEnergyStored();
 		if (energyStored <= 0 ||
 				receive.getEnergyStored() >= receive.getMaxEnergyStored() ||
 				!extract.canExtract() || !receive.canReceive()) {
 			return;
 		}
+		if (extract instanceof IModEnergyStorage modExtract && receive instanceof IModEnergyStorage modReceive &&
+				EnergyTransaction.isTransactional(modExtract) && EnergyTransaction.isTransactional(modReceive) &&
+				controlEnergy(modExtract, modReceive, energyStored)) {
+			return;
+		}
 		int extractValue = extract.extractEnergy(energyStored, true);
 		if (extractValue <= 0) {
 			return;
@@ -59,8 +88,248 @@ public class EnergyUtil {
 		receive.receiveEnergy(receiveValue, false);
 	}
 
+	/**
+	 * 通过事务控制两个模组能源槽之间的能量传递
+	 * <br>
+	 * 只读取一次双方的能量并暂存，提交时双方各写入一次。
+	 * 双方都必须满足 {@link EnergyTransaction#isTransactional(IModEnergyStorage)}
+	 *
+	 * @param extract      被提取
+	 * @param receive      接收的
+	 * @param energyStored 被提取方当前的能量
+	 * @return 是否已处理，提交失败（如能量被其他线程修改）时返回 false，由调用方改用模拟传输
+	 */
+	private static boolean controlEnergy(IModEnergyStorage extract, IModEnergyStorage receive, int energyStored) {
+		try (EnergyTransaction transaction = EnergyTransaction.open()) {
+			int receiveValue = receive.receiveEnergy(Math.min(energyStored, extract.getMaxExtract()), transaction);
+			if (receiveValue <= 0) {
+				return true;
+			}
+			if (extract.extractEnergy(receiveValue, transaction) != receiveValue) {
+				return true;
+			}
+			if (transaction.commit()) {
+				return true;
+			}
+			CtnApiMain.LOGGER.debug("Energy transaction between {} and {} was rejected, retrying with simulation", extract, receive);
+			return false;
+		}
+	}
+
+	/**
+	 * 控制两个64位能源槽之间的能量传递，传输量不受 int 范围限制
+	 *
+	 * @param extract 被提取
+	 * @param receive 接收的
+	 */
+	public static void controlEnergy(@NotNull IModLongEnergyStorage extract, @NotNull IModLongEnergyStorage receive) {
+		long energyStored = extract.getEnergyStoredLong();
+		if (energyStored <= 0 ||
+				receive.getEnergyStoredLong() >= receive.getMaxEnergyStoredLong() ||
+				!extract.canExtract() || !receive.canReceive()) {
+			return;
+		}
+		long extractValue = extract.extractEnergyLong(energyStored, true);
+		if (extractValue <= 0) {
+			return;
+		}
+		long receiveValue = receive.receiveEnergyLong(extractValue, true);
+		if (receiveValue <= 0) {
+			return;
+		}
+		extract.extractEnergyLong(receiveValue, false);
+		receive.receiveEnergyLong(receiveValue, false);
+	}
+
+	/**
+	 * 将能量源的能量公平地分配给多个接收方
+	 * <br>
+	 * 每个接收方只模拟一次需求，按需求比例分配，除不尽的余量从游标记录的位置开始轮流分配。
+	 * 游标由调用方（通常是能量源所在的方块实体）持有，同时保存分配用的临时数组，重复调用时不分配对象
+	 *
+	 * @param source  能量源
+	 * @param targets 接收方
+	 * @param cursor  分配游标
+	 * @return 实际传输的能量
+	 */
+	public static int distribute(@NotNull IEnergyStorage source, @NotNull List<? extends IEnergyStorage> targets,
+	                             @NotNull DistributionCursor cursor) {
+		int size = targets.size();
+		if (size == 0) {
+			return 0;
+		}
+		cursor.ensureCapacity(size);
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			IEnergyStorage storage = targets.get(i);
+			if (storage != null && storage != source) {
+				cursor.targets[count++] = storage;
+			}
+		}
+		return distribute(source, count, cursor);
+	}
+
+	/**
+	 * 将能量源的能量公平地分配给所有可接收能量的邻居
+	 *
+	 * @param source    能量源
+	 * @param neighbors 邻居能量接口
+	 * @param cursor    分配游标
+	 * @return 实际传输的能量
+	 */
+	public static int distribute(@NotNull IEnergyStorage source, @NotNull EnergyNeighbors neighbors,
+	                             @NotNull DistributionCursor cursor) {
+		int mask = neighbors.getReceivableMask();
+		if (mask == 0) {
+			return 0;
+		}
+		cursor.ensureCapacity(EnergyCapabilityCache.SIZE);
+		int count = 0;
+		for (int i = 0; i < EnergyCapabilityCache.SIZE; i++) {
+			IEnergyStorage storage = (mask & 1 << i) != 0 ? neighbors.get(i) : null;
+			if (storage != null && storage != source) {
+				cursor.targets[count++] = storage;
+			}
+		}
+		return distribute(source, count, cursor);
+	}
+
+	private static int distribute(IEnergyStorage source, int count, DistributionCursor cursor) {
+		try {
+			return transfer(source, count, cursor);
+		} finally {
+			// 不保留对接收方的引用
+			Arrays.fill(cursor.targets, 0, count, null);
+		}
+	}
+
+	private static int transfer(IEnergyStorage source, int count, DistributionCursor cursor) {
+		IEnergyStorage[] targets = cursor.targets;
+		if (count == 0 || !source.canExtract()) {
+			return 0;
+		}
+		if (isInfiniteSource(source)) {
+			// 多个接收方的总量可能超过 int 范围，每个接收方最多接收剩余的额度
+			long received = 0;
+			for (int i = 0; i < count && received < Integer.MAX_VALUE; i++) {
+				if (targets[i] != null && targets[i].canReceive()) {
+					received += Math.max(0, targets[i].receiveEnergy((int) (Integer.MAX_VALUE - received), false));
+				}
+			}
+			return (int) Math.min(Integer.MAX_VALUE, received);
+		}
+		int available = source.extractEnergy(Integer.MAX_VALUE, true);
+		if (available <= 0) {
+			return 0;
+		}
+		int[] demand = cursor.demand;
+		long totalDemand = 0;
+		for (int i = 0; i < count; i++) {
+			IEnergyStorage target = targets[i];
+			demand[i] = 0;
+			if (target != null && target.canReceive()) {
+				demand[i] = isInfiniteSink(target) ? available : Math.max(0, target.receiveEnergy(available, true));
+				totalDemand += demand[i];
+			}
+		}
+		if (totalDemand <= 0) {
+			return 0;
+		}
+		int toSend = (int) Math.min(available, totalDemand);
+		if (toSend < totalDemand) {
+			// 按比例分配，除不尽的余量从游标处开始每个接收方补 1
+			int remainder = toSend;
+			int[] share = cursor.share;
+			for (int i = 0; i < count; i++) {
+				share[i] = (int) (demand[i] * (long) toSend / totalDemand);
+				remainder -= share[i];
+			}
+			int start = Math.floorMod(cursor.position, count);
+			int index = start;
+			while (remainder > 0) {
+				if (share[index] < demand[index]) {
+					share[index]++;
+					remainder--;
+				}
+				index = (index + 1) % count;
+			}
+			cursor.position = index == start ? start + 1 : index;
+			demand = share;
+		}
+		int received = 0;
+		for (int i = 0; i < count; i++) {
+			if (demand[i] > 0) {
+				received += targets[i].receiveEnergy(demand[i], false);
+			}
+		}
+		if (received > 0) {
+			source.extractEnergy(received, false);
+		}
+		return received;
+	}
+
+	/**
+	 * 是否为无限能量源
+	 *
+	 * @param storage 能量接口
+	 * @return 是否为无限能量源
+	 */
+	public static boolean isInfiniteSource(@Nullable IEnergyStorage storage) {
+		return storage instanceof IModEnergyStorage modStorage && modStorage.isInfiniteSource();
+	}
+
+	/**
+	 * 是否为无限能量汇
+	 *
+	 * @param storage 能量接口
+	 * @return 是否为无限能量汇
+	 */
+	public static boolean isInfiniteSink(@Nullable IEnergyStorage storage) {
+		return storage instanceof IModEnergyStorage modStorage && modStorage.isInfiniteSink();
+	}
+
+	/**
+	 * 能量分配游标
+	 * 记录下一次分配余量时开始的接收方位置，并保存可复用的临时数组。
+	 * 每个能量源持有一个，只能在一个线程中使用
+	 */
+	public static final class DistributionCursor {
+		private int position;
+		private IEnergyStorage[] targets = new IEnergyStorage[EnergyCapabilityCache.SIZE];
+		private int[] demand = new int[EnergyCapabilityCache.SIZE];
+		private int[] share = new int[EnergyCapabilityCache.SIZE];
+
+		private void ensureCapacity(int size) {
+			if (targets.length < size) {
+				int length = Math.max(size, targets.length * 2);
+				targets = new IEnergyStorage[length];
+				demand = new int[length];
+				share = new int[length];
+			}
+		}
+
+		/**
+		 * 获取下一次分配余量时开始的位置
+		 *
+		 * @return 位置
+		 */
+		public int getPosition() {
+			return position;
+		}
+
+		/**
+		 * 重置游标
+		 */
+		public void reset() {
+			position = 0;
+		}
+	}
+
 	/**
 	 * 获取方块所有可以接收能量的能量接口
+	 * <br>
+	 * 每刻调用时请使用 {@link EnergyCapabilityCache} 避免重复查询能力，
+	 * 或使用可复用的 {@link EnergyNeighbors} 避免每次新建映射
 	 *
 	 * @param level 世界
 	 * @param pos   方块位置
@@ -85,6 +354,9 @@ public class EnergyUtil {
 
 	/**
 	 * 获取周围方块的对应方向能接收能量的能量接口
+	 * <br>
+	 * 每刻调用时请使用 {@link EnergyCapabilityCache} 避免重复查询能力，
+	 * 或使用可复用的 {@link EnergyNeighbors} 避免每次新建映射
 	 *
 	 * @param level 中心世界
 	 * @param pos   坐标
@@ -107,9 +379,34 @@ public class EnergyUtil {
 	 * @return 能接收能量的能量接口
 	 */
 	public static void copyEnergy(IModEnergyStorage receive, IModEnergyStorage extract) {
+		if (receive instanceof IModLongEnergyStorage longReceive && extract instanceof IModLongEnergyStorage longExtract) {
+			copyEnergy(longReceive, longExtract);
+			return;
+		}
+		if (receive instanceof ModEnergyStorage modEnergyStorage) {
+			modEnergyStorage.setEnergyStored(extract.getMaxEnergyStored(), extract.getMaxReceive(),
+					extract.getMaxExtract(), extract.getEnergyStored());
+			return;
+		}
+		if (receive instanceof ModComponentEnergyStorage componentEnergyStorage) {
+			componentEnergyStorage.setEnergyStored(extract.getMaxEnergyStored(), extract.getMaxReceive(),
+					extract.getMaxExtract(), extract.getEnergyStored());
+			return;
+		}
 		receive.setEnergy(extract.getEnergyStored());
 		receive.setMaxEnergyStored(extract.getMaxEnergyStored());
 		receive.setMaxExtract(extract.getMaxExtract());
 		receive.setMaxReceive(extract.getMaxReceive());
 	}
-}
\ No newline at end of file
+
+	/**
+	 * 复制64位能量，数值不会被截断
+	 *
+	 * @param receive 接收的
+	 * @param extract 被复制的
+	 */
+	public static void copyEnergy(IModLongEnergyStorage receive, IModLongEnergyStorage extract) {
+		receive.setEnergyStoredLong(extract.getMaxEnergyStoredLong(), extract.getMaxReceiveLong(),
+				extract.getMaxExtractLong(), extract.getEnergyStoredLong());
+	}
+}
@@ -1,14 +1,15 @@
 package ctn.ctnapi.util;
 
 import ctn.ctnapi.CtnApiMain;
+import ctn.ctnapi.common.loot.LootSpawnQueue;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * 物品实体工具类
@@ -87,6 +88,8 @@ public class ItemEntityUtil {
 
 	/**
 	 * 在指定位置生成战利品物品堆栈实体
+	 * <br>
+	 * 物品数量很多时请使用 {@link #queueLootItemStacks(ServerLevel, float, float, float, ItemStack...)} 分散到多个刻中生成
 	 *
 	 * @param serverLevel 服务端世界
 	 * @param x           X坐标
@@ -98,59 +101,13 @@ public class ItemEntityUtil {
 		if (itemStack.length == 0) return;
 
 		try {
-			// 过滤掉空的 ItemStack 并创建副本以防外部变更
-			List<ItemStack> validStacks = Arrays.stream(itemStack)
-					.filter(stack -> stack != null && !stack.isEmpty())
-					.map(ItemStack::copy) // 防御性拷贝
-					.collect(Collectors.toList());
-
-			if (validStacks.isEmpty()) return;
-
-			// 缓存名字字符串避免多次调用 getName
-			Map<ItemStack, String> nameCache = new HashMap<>();
-			for (ItemStack stack : validStacks) {
-				nameCache.putIfAbsent(stack, stack.getItem().getName(stack).getString());
-			}
-
-			// 排序：优先按物品类型再按名称排序
-			validStacks.sort((a, b) -> {
-				if (ItemStack.isSameItemSameComponents(a, b)) return 0;
-				String nameA = nameCache.get(a);
-				String nameB = nameCache.get(b);
-				return nameA.compareTo(nameB);
-			});
-
-			// 合并相同物品（基于 isSameItemSameComponents）
-			Map<String, Integer> itemCountMap = new LinkedHashMap<>();
-			Map<String, ItemStack> templateMap = new HashMap<>();
-
-			for (ItemStack current : validStacks) {
-				String key = getItemKey(current); // 构造唯一标识符
-				templateMap.putIfAbsent(key, current);
-				itemCountMap.merge(key, current.getCount(), Integer::sum);
-			}
-
-			// 构造最终的 ItemStack 列表并拆分成最大堆叠大小限制内的多个项
-			List<ItemStack> mergedStacks = new ArrayList<>();
-			for (Map.Entry<String, Integer> entry : itemCountMap.entrySet()) {
-				ItemStack template = templateMap.get(entry.getKey());
-				int totalCount = entry.getValue();
-				int maxStackSize = template.getMaxStackSize();
-
-				while (totalCount > 0) {
-					int countToTake = Math.min(totalCount, maxStackSize);
-					ItemStack newItem = template.copy();
-					newItem.setCount(countToTake);
-					mergedStacks.add(newItem);
-					totalCount -= countToTake;
-				}
-			}
-
-			// 创建并添加实体
-			mergedStacks.stream()
-					.map(stack -> new ItemEntity(serverLevel, x, y, z, stack))
-					.forEach(serverLevel::addFreshEntity);
+			// 合并相同物品（基于 isSameItemSameComponents），合并器会复制模板以防外部变更
+			ItemStackMerger merger = new ItemStackMerger(itemStack.length);
+			merger.addAll(itemStack);
+			if (merger.isEmpty()) return;
 
+			// 按最大堆叠大小拆分后创建并添加实体
+			merger.forEachStack(stack -> serverLevel.addFreshEntity(new ItemEntity(serverLevel, x, y, z, stack)));
 		} catch (Exception e) {
 			CtnApiMain.LOGGER.error("Error occurred in summonLootItemStacks: {}", e.getMessage());
 		}
@@ -181,12 +138,53 @@ public class ItemEntityUtil {
 	}
 
 	/**
-	 * 获取物品堆栈的唯一标识符
+	 * 将战利品物品堆栈加入世界的生成队列，分散到多个刻中生成
+	 * <br>
+	 * 同一位置排队的物品会在生成前合并，参见 {@link LootSpawnQueue}
 	 *
-	 * @param stack 物品堆栈
-	 * @return 唯一标识符字符串
+	 * @param serverLevel 服务端世界
+	 * @param pos         生成位置
+	 * @param itemStack   物品堆栈数组
+	 */
+	public static void queueLootItemStacks(ServerLevel serverLevel, BlockPos pos, ItemStack... itemStack) {
+		queueLootItemStacks(serverLevel, pos.getX() + 0.5f, pos.getY() + 0.5f, pos.getZ() + 0.5f, itemStack);
+	}
+
+	/**
+	 * 将战利品物品堆栈加入世界的生成队列，分散到多个刻中生成
+	 *
+	 * @param serverLevel 服务端世界
+	 * @param x           X坐标
+	 * @param y           Y坐标
+	 * @param z           Z坐标
+	 * @param itemStack   物品堆栈数组
+	 */
+	public static void queueLootItemStacks(ServerLevel serverLevel, float x, float y, float z, ItemStack... itemStack) {
+		if (itemStack.length == 0) return;
+		LootSpawnQueue.get(serverLevel).enqueue(x, y, z, itemStack);
+	}
+
+	/**
+	 * 将战利品物品堆栈加入世界的生成队列，分散到多个刻中生成
+	 *
+	 * @param serverLevel 服务端世界
+	 * @param pos         生成位置
+	 * @param itemStacks  物品堆栈列表
+	 */
+	public static void queueLootItemStacks(ServerLevel serverLevel, BlockPos pos, List<ItemStack> itemStacks) {
+		queueLootItemStacks(serverLevel, pos, itemStacks.toArray(ItemStack[]::new));
+	}
+
+	/**
+	 * 将战利品物品堆栈加入世界的生成队列，分散到多个刻中生成
+	 *
+	 * @param serverLevel 服务端世界
+	 * @param x           X坐标
+	 * @param y           Y坐标
+	 * @param z           Z坐标
+	 * @param itemStacks  物品堆栈列表
 	 */
-	private static String getItemKey(ItemStack stack) {
-		return stack.getItem() + "|" + stack.getComponents();
+	public static void queueLootItemStacks(ServerLevel serverLevel, float x, float y, float z, List<ItemStack> itemStacks) {
+		queueLootItemStacks(serverLevel, x, y, z, itemStacks.toArray(ItemStack[]::new));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+package ctn.ctnapi.util;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 物品堆栈合并器
+ * 按物品与数据组件合并物品堆栈的数量，使用 {@link ItemStack#hashItemAndComponents(ItemStack)} 与
+ * {@link ItemStack#isSameItemSameComponents(ItemStack, ItemStack)} 在开放寻址表中分组，
+ * 不构造字符串也不查询物品名称。
+ * <br>
+ * 输出按每种物品第一次加入的顺序，数量以 long 累计，输出时按最大堆叠数拆分。
+ * 可以在 {@link #clear()} 后复用以避免重新分配数组。
+ */
+public class ItemStackMerger {
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * 开放寻址表，保存条目下标加 1，0 表示空位
+	 */
+	private int[] table;
+	private int mask;
+	private ItemStack[] templates;
+	private long[] counts;
+	private int[] hashes;
+	private int size;
+
+	/**
+	 * 构造函数
+	 */
+	public ItemStackMerger() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * 构造函数
+	 *
+	 * @param expected 预计的物品种类数量
+	 */
+	public ItemStackMerger(int expected) {
+		int capacity = Math.max(DEFAULT_CAPACITY, expected);
+		int tableSize = HashCommon.arraySize(capacity, 0.5f);
+		table = new int[tableSize];
+		mask = tableSize - 1;
+		templates = new ItemStack[capacity];
+		counts = new long[capacity];
+		hashes = new int[capacity];
+	}
+
+	/**
+	 * 加入物品堆栈，空物品堆栈会被忽略
+	 * <br>
+	 * 新种类的物品会保存一份副本，之后修改传入的物品堆栈不会影响合并结果
+	 *
+	 * @param itemStack 物品堆栈
+	 */
+	public void add(ItemStack itemStack) {
+		if (itemStack == null || itemStack.isEmpty()) {
+			return;
+		}
+		add(itemStack, itemStack.getCount());
+	}
+
+	/**
+	 * 加入指定数量的物品
+	 *
+	 * @param itemStack 物品堆栈，只使用其物品与数据组件
+	 * @param count     数量
+	 */
+	public void add(ItemStack itemStack, long count) {
+		if (count <= 0 || itemStack.isEmpty()) {
+			return;
+		}
+		int hash = ItemStack.hashItemAndComponents(itemStack);
+		int slot = HashCommon.mix(hash) & mask;
+		int entry;
+		while ((entry = table[slot]) != 0) {
+			int index = entry - 1;
+			if (hashes[index] == hash && ItemStack.isSameItemSameComponents(templates[index], itemStack)) {
+				counts[index] += count;
+				return;
+			}
+			slot = slot + 1 & mask;
+		}
+		if (size == templates.length) {
+			int capacity = size * 2;
+			templates = Arrays.copyOf(templates, capacity);
+			counts = Arrays.copyOf(counts, capacity);
+			hashes = Arrays.copyOf(hashes, capacity);
+		}
+		templates[size] = itemStack.copyWithCount(1);
+		counts[size] = count;
+		hashes[size] = hash;
+		table[slot] = ++size;
+		if (size > table.length >> 1) {
+			rehash(table.length << 1);
+		}
+	}
+
+	/**
+	 * 加入所有物品堆栈
+	 *
+	 * @param itemStacks 物品堆栈
+	 */
+	public void addAll(ItemStack... itemStacks) {
+		for (ItemStack itemStack : itemStacks) {
+			add(itemStack);
+		}
+	}
+
+	/**
+	 * 加入所有物品堆栈
+	 *
+	 * @param itemStacks 物品堆栈
+	 */
+	public void addAll(Iterable<ItemStack> itemStacks) {
+		for (ItemStack itemStack : itemStacks) {
+			add(itemStack);
+		}
+	}
+
+	/**
+	 * 获取物品种类数量
+	 *
+	 * @return 种类数量
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否为空
+	 *
+	 * @return 是否为空
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 获取指定种类的模板物品堆栈（数量为 1），不应修改
+	 *
+	 * @param index 种类下标
+	 * @return 模板物品堆栈
+	 */
+	public ItemStack getTemplate(int index) {
+		checkIndex(index);
+		return templates[index];
+	}
+
+	/**
+	 * 获取指定种类的总数量
+	 *
+	 * @param index 种类下标
+	 * @return 总数量
+	 */
+	public long getCount(int index) {
+		checkIndex(index);
+		return counts[index];
+	}
+
+	/**
+	 * 按最大堆叠数拆分并逐个输出合并后的物品堆栈
+	 *
+	 * @param consumer 接收者，每次收到新的物品堆栈
+	 */
+	public void forEachStack(Consumer<ItemStack> consumer) {
+		for (int i = 0; i < size; i++) {
+			ItemStack template = templates[i];
+			int maxStackSize = Math.max(1, template.getMaxStackSize());
+			long totalCount = counts[i];
+			while (totalCount > 0) {
+				int countToTake = (int) Math.min(totalCount, maxStackSize);
+				consumer.accept(template.copyWithCount(countToTake));
+				totalCount -= countToTake;
+			}
+		}
+	}
+
+	/**
+	 * 获取按最大堆叠数拆分后的物品堆栈
+	 *
+	 * @return 物品堆栈列表
+	 */
+	public List<ItemStack> toItemStacks() {
+		List<ItemStack> itemStacks = new ArrayList<>(size);
+		forEachStack(itemStacks::add);
+		return itemStacks;
+	}
+
+	/**
+	 * 清空，保留已分配的数组
+	 */
+	public void clear() {
+		if (size == 0) {
+			return;
+		}
+		Arrays.fill(table, 0);
+		Arrays.fill(templates, 0, size, null);
+		size = 0;
+	}
+
+	private void rehash(int tableSize) {
+		table = new int[tableSize];
+		mask = tableSize - 1;
+		for (int i = 0; i < size; i++) {
+			int slot = HashCommon.mix(hashes[i]) & mask;
+			while (table[slot] != 0) {
+				slot = slot + 1 & mask;
+			}
+			table[slot] = i + 1;
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * 转换为字符串表示
+	 *
+	 * @return 字符串表示
+	 */
+	@Override
+	public String toString() {
+		return "ItemStackMerger:{" +
+				"size=" + size + "}";
+	}
+}
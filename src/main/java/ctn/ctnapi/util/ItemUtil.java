@@ -1,49 +1,164 @@
 package ctn.ctnapi.util;
 
+import ctn.ctnapi.adapter.ItemHandlerListView;
 import net.minecraft.core.NonNullList;
+import net.minecraft.world.Container;
 import net.minecraft.world.item.ItemStack;
 import net.neoforged.neoforge.items.IItemHandler;
+import net.neoforged.neoforge.items.ItemStackHandler;
+import net.neoforged.neoforge.items.wrapper.InvWrapper;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * 物品工具类
  * 提供物品相关的实用方法
  */
 public class ItemUtil {
+	/**
+	 * ItemStackHandler 子类是否没有重写读取与设置槽位的方法，可以直接清空槽位
+	 */
+	private static final ClassValue<Boolean> DIRECT_ITEM_STACK_HANDLER = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return notOverridden(type, ItemStackHandler.class, "extractItem", int.class, int.class, boolean.class) &&
+					notOverridden(type, ItemStackHandler.class, "getStackInSlot", int.class) &&
+					notOverridden(type, ItemStackHandler.class, "setStackInSlot", int.class, ItemStack.class);
+		}
+	};
+	/**
+	 * InvWrapper 子类是否没有重写提取方法，可以直接操作容器
+	 */
+	private static final ClassValue<Boolean> DIRECT_INV_WRAPPER = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return notOverridden(type, InvWrapper.class, "extractItem", int.class, int.class, boolean.class) &&
+					notOverridden(type, InvWrapper.class, "getStackInSlot", int.class);
+		}
+	};
+
 	/**
 	 * 获取 IItemHandler 中的物品集合
+	 * <br>
+	 * 只读取时请使用不复制的 {@link #viewItemStacks(IItemHandler)}
 	 *
 	 * @param handler IItemHandler 能力
-	 * @return 不可修改的限定大小的物品集合
+	 * @return 限定大小的物品集合
 	 */
 	public static List<ItemStack> getItemStacks(IItemHandler handler) {
 		int slots = handler.getSlots();
 		List<ItemStack> arrayList = NonNullList.withSize(slots, ItemStack.EMPTY);
 		for (int i = 0; i < slots; i++) {
-			arrayList.add(handler.getStackInSlot(i));
+			arrayList.set(i, handler.getStackInSlot(i));
 		}
 		return arrayList;
 	}
 
+	/**
+	 * 获取 IItemHandler 的只读物品集合视图
+	 * <br>
+	 * 不复制物品，读取时直接访问物品处理器，总是反映当前内容
+	 *
+	 * @param handler IItemHandler 能力
+	 * @return 只读的物品集合视图
+	 */
+	public static List<ItemStack> viewItemStacks(IItemHandler handler) {
+		return new ItemHandlerListView(handler);
+	}
+
 	/**
 	 * 移除并返回 IItemHandler 中所有的物品
 	 * <br>
 	 * 不包含空物品
 	 *
 	 * @param handler IItemHandler 能力
-	 * @return 不可修改的限定大小的被移除的物品集合
+	 * @return 不可修改的被移除的物品集合
 	 */
 	public static List<ItemStack> clearContent(IItemHandler handler) {
-		int slots = handler.getSlots();
 		List<ItemStack> arrayList = new ArrayList<>();
+		drain(handler, itemStack -> true, arrayList::add);
+		return Collections.unmodifiableList(arrayList);
+	}
+
+	/**
+	 * 一次遍历移除 IItemHandler 中所有符合条件的物品，并逐个交给接收者
+	 * <br>
+	 * 每个槽位只读取一次并提取一次，不进行模拟；
+	 * 对未重写相关方法的 {@link ItemStackHandler} 直接清空槽位；
+	 * 对 {@link InvWrapper} 直接调用容器的 {@link Container#removeItem}，容器只在最后标记一次修改
+	 *
+	 * @param handler IItemHandler 能力
+	 * @param filter  过滤条件
+	 * @param sink    被移除物品的接收者
+	 * @return 被移除的物品栈数量
+	 */
+	public static int drain(IItemHandler handler, Predicate<ItemStack> filter, Consumer<ItemStack> sink) {
+		if (handler instanceof InvWrapper wrapper && DIRECT_INV_WRAPPER.get(wrapper.getClass())) {
+			return drain(wrapper.getInv(), filter, sink);
+		}
+		boolean direct = handler instanceof ItemStackHandler && DIRECT_ITEM_STACK_HANDLER.get(handler.getClass());
+		int slots = handler.getSlots();
+		int drained = 0;
+		for (int i = 0; i < slots; i++) {
+			ItemStack itemStack = handler.getStackInSlot(i);
+			if (itemStack.isEmpty() || !filter.test(itemStack)) {
+				continue;
+			}
+			if (direct) {
+				// getStackInSlot 返回的就是槽位中的物品栈，清空槽位即可取走，无需拆分复制
+				((ItemStackHandler) handler).setStackInSlot(i, ItemStack.EMPTY);
+			} else {
+				itemStack = handler.extractItem(i, itemStack.getCount(), false);
+				if (itemStack.isEmpty()) {
+					continue;
+				}
+			}
+			sink.accept(itemStack);
+			drained++;
+		}
+		return drained;
+	}
+
+	private static int drain(Container container, Predicate<ItemStack> filter, Consumer<ItemStack> sink) {
+		int slots = container.getContainerSize();
+		int drained = 0;
 		for (int i = 0; i < slots; i++) {
-			if (handler.extractItem(i, handler.getSlotLimit(i), true).isEmpty()) {
+			ItemStack itemStack = container.getItem(i);
+			if (itemStack.isEmpty() || !filter.test(itemStack)) {
+				continue;
+			}
+			// 与 InvWrapper#extractItem 相同使用 removeItem，使合成容器等能收到槽位变化通知
+			ItemStack removed = container.removeItem(i, itemStack.getCount());
+			if (removed.isEmpty()) {
 				continue;
 			}
-			arrayList.add(handler.extractItem(i, handler.getSlotLimit(i), false));
+			sink.accept(removed);
+			drained++;
+		}
+		if (drained > 0) {
+			container.setChanged();
+		}
+		return drained;
+	}
+
+	/**
+	 * 检查类是否没有重写指定的方法
+	 *
+	 * @param type           类
+	 * @param declaringClass 原始声明方法的类
+	 * @param name           方法名
+	 * @param parameterTypes 参数类型
+	 * @return 是否没有重写
+	 */
+	private static boolean notOverridden(Class<?> type, Class<?> declaringClass, String name, Class<?>... parameterTypes) {
+		try {
+			return type.getMethod(name, parameterTypes).getDeclaringClass() == declaringClass;
+		} catch (NoSuchMethodException e) {
+			return false;
 		}
-		return NonNullList.copyOf(arrayList);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package ctn.ctnapi.adapter;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 紧凑物品集合测试
+ */
+class CompactItemListTest {
+	/**
+	 * 索引 0 总是空物品栈，不能写入或移除，空物品栈不会被添加
+	 */
+	@Test
+	void emptyHeadIsPreserved() {
+		CompactItemList list = new CompactItemList();
+		assertTrue(list.isEmpty());
+		assertEquals(1, list.size());
+		assertTrue(list.get(0).isEmpty());
+		assertEquals(CompactItemList.EMPTY_HANDLE, list.handleAt(0));
+
+		assertEquals(-1, list.add(ItemStack.EMPTY));
+		assertEquals(1, list.size());
+		list.add(new ItemStack(Items.STONE));
+		assertThrows(IllegalArgumentException.class, () -> list.set(0, new ItemStack(Items.DIRT)));
+		assertThrows(IllegalArgumentException.class, () -> list.set(1, ItemStack.EMPTY));
+		assertThrows(IllegalArgumentException.class, () -> list.swapRemove(0));
+		assertThrows(IllegalArgumentException.class, () -> list.remove(CompactItemList.EMPTY_HANDLE));
+
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertTrue(list.get(0).isEmpty());
+	}
+
+	/**
+	 * 移除时末尾元素移动到被移除的位置，句柄保持不变
+	 */
+	@Test
+	void swapRemoveMovesLastAndKeepsHandles() {
+		CompactItemList list = new CompactItemList(2);
+		ItemStack stone = new ItemStack(Items.STONE);
+		ItemStack dirt = new ItemStack(Items.DIRT);
+		ItemStack sand = new ItemStack(Items.SAND);
+		int stoneHandle = list.add(stone);
+		int dirtHandle = list.add(dirt);
+		int sandHandle = list.add(sand);
+		assertEquals(4, list.size());
+
+		assertSame(stone, list.swapRemove(1));
+		assertEquals(3, list.size());
+		assertSame(sand, list.get(1));
+		assertSame(dirt, list.get(2));
+		assertEquals(-1, list.indexOf(stoneHandle));
+		assertEquals(1, list.indexOf(sandHandle));
+		assertEquals(2, list.indexOf(dirtHandle));
+		assertSame(sand, list.getByHandle(sandHandle));
+		assertThrows(IllegalArgumentException.class, () -> list.getByHandle(stoneHandle));
+
+		assertSame(dirt, list.remove(dirtHandle));
+		assertSame(sand, list.getByHandle(sandHandle));
+		assertEquals(2, list.size());
+	}
+
+	/**
+	 * 更新时移除被外部清空的物品栈，其余元素的句柄仍然有效
+	 */
+	@Test
+	void updateRemovesEmptiedStacks() {
+		CompactItemList list = new CompactItemList();
+		ItemStack stone = new ItemStack(Items.STONE);
+		ItemStack dirt = new ItemStack(Items.DIRT);
+		list.add(stone);
+		int dirtHandle = list.add(dirt);
+		stone.setCount(0);
+
+		list.update();
+
+		assertEquals(2, list.size());
+		assertSame(dirt, list.getByHandle(dirtHandle));
+		assertEquals(1, list.indexOf(dirtHandle));
+	}
+}
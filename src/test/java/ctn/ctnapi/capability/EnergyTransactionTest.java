@@ -0,0 +1,197 @@
+package ctn.ctnapi.capability;
+
+import ctn.ctnapi.adapter.ModEnergyStorage;
+import ctn.ctnapi.adapter.ModLongEnergyStorage;
+import ctn.ctnapi.common.data_compoent.ModComponentEnergyStorage;
+import ctn.ctnapi.common.data_compoent.ModComponentEnergyStorage.EnergyStorageData;
+import ctn.ctnapi.common.data_compoent.StubComponentHolder;
+import ctn.ctnapi.util.EnergyUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 能量事务测试
+ */
+class EnergyTransactionTest {
+	/**
+	 * 组件能量存储与64位能量存储都可以参与事务
+	 */
+	@Test
+	void shippedStoragesAreTransactional() {
+		assertTrue(EnergyTransaction.isTransactional(new ModEnergyStorage(100)));
+		assertTrue(EnergyTransaction.isTransactional(new ModLongEnergyStorage(100)));
+		assertTrue(EnergyTransaction.isTransactional(componentStorage(new StubComponentHolder(), 0)));
+	}
+
+	/**
+	 * 组件能量存储通过事务传输，提交时只写入一次数据组件
+	 */
+	@Test
+	void componentStorageUsesTransactionPath() {
+		StubComponentHolder holder = new StubComponentHolder();
+		ModComponentEnergyStorage extract = componentStorage(holder, 600);
+		CountingEnergyStorage receive = new CountingEnergyStorage(1000);
+		int writes = holder.getWrites();
+
+		EnergyUtil.controlEnergy(extract, receive);
+
+		assertEquals(1, receive.applied);
+		assertEquals(1, holder.getWrites() - writes);
+		assertEquals(400, extract.getEnergyStored());
+		assertEquals(200, receive.getEnergyStored());
+	}
+
+	/**
+	 * 64位能量存储与 int 能量存储之间通过事务传输
+	 */
+	@Test
+	void longStorageUsesTransactionPath() {
+		ModLongEnergyStorage extract = new ModLongEnergyStorage(1000, 1000, 1000, 600);
+		CountingEnergyStorage receive = new CountingEnergyStorage(1000);
+
+		EnergyUtil.controlEnergy(extract, receive);
+
+		assertEquals(1, receive.applied);
+		assertEquals(400, extract.getEnergyStoredLong());
+		assertEquals(200, receive.getEnergyStored());
+	}
+
+	/**
+	 * 提交前只暂存修改，提交时写入双方
+	 */
+	@Test
+	void commitAppliesStagedChanges() {
+		ModEnergyStorage extract = new ModEnergyStorage(1000, 1000, 1000, 500);
+		ModEnergyStorage receive = new ModEnergyStorage(1000, 1000, 1000, 0);
+		try (EnergyTransaction transaction = EnergyTransaction.open()) {
+			assertEquals(300, receive.receiveEnergy(300, transaction));
+			assertEquals(300, extract.extractEnergy(300, transaction));
+			assertEquals(200, transaction.getEnergyStored(extract));
+			assertEquals(300, transaction.getEnergyStored(receive));
+			assertEquals(500, extract.getEnergyStored());
+			assertEquals(0, receive.getEnergyStored());
+
+			assertTrue(transaction.commit());
+			assertTrue(transaction.isClosed());
+		}
+		assertEquals(200, extract.getEnergyStored());
+		assertEquals(300, receive.getEnergyStored());
+	}
+
+	/**
+	 * 放弃或未提交就关闭时丢弃所有修改，关闭后不能再使用
+	 */
+	@Test
+	void abortAndCloseDiscardChanges() {
+		ModEnergyStorage storage = new ModEnergyStorage(1000, 1000, 1000, 500);
+		EnergyTransaction aborted = EnergyTransaction.open();
+		storage.extractEnergy(100, aborted);
+		aborted.abort();
+		assertEquals(500, storage.getEnergyStored());
+		assertThrows(IllegalStateException.class, aborted::commit);
+		assertThrows(IllegalStateException.class, () -> aborted.stage(storage, 1));
+
+		try (EnergyTransaction transaction = EnergyTransaction.open()) {
+			storage.receiveEnergy(100, transaction);
+		}
+		assertEquals(500, storage.getEnergyStored());
+	}
+
+	/**
+	 * 子事务提交时并入父事务，放弃时只丢弃自己的修改
+	 */
+	@Test
+	void nestedTransactionsMergeIntoParent() {
+		ModEnergyStorage storage = new ModEnergyStorage(1000, 1000, 1000, 500);
+		try (EnergyTransaction transaction = EnergyTransaction.open()) {
+			storage.extractEnergy(100, transaction);
+
+			EnergyTransaction committed = transaction.openNested();
+			assertEquals(400, committed.getEnergyStored(storage));
+			storage.extractEnergy(50, committed);
+			assertThrows(IllegalStateException.class, () -> storage.extractEnergy(1, transaction));
+			assertThrows(IllegalStateException.class, transaction::openNested);
+			assertTrue(committed.commit());
+			assertEquals(350, transaction.getEnergyStored(storage));
+
+			try (EnergyTransaction aborted = transaction.openNested()) {
+				storage.extractEnergy(200, aborted);
+				assertEquals(150, aborted.getEnergyStored(storage));
+			}
+			assertEquals(350, transaction.getEnergyStored(storage));
+			assertEquals(500, storage.getEnergyStored());
+
+			assertTrue(transaction.commit());
+		}
+		assertEquals(350, storage.getEnergyStored());
+	}
+
+	/**
+	 * 结果超出容量时不写入任何修改
+	 */
+	@Test
+	void commitRejectsOutOfRangeResult() {
+		ModEnergyStorage first = new ModEnergyStorage(1000, 1000, 1000, 500);
+		ModEnergyStorage second = new ModEnergyStorage(1000, 1000, 1000, 900);
+		try (EnergyTransaction transaction = EnergyTransaction.open()) {
+			transaction.stage(first, -100);
+			transaction.stage(second, 200);
+			assertFalse(transaction.commit());
+		}
+		assertEquals(500, first.getEnergyStored());
+		assertEquals(900, second.getEnergyStored());
+	}
+
+	/**
+	 * 某个能量存储拒绝写入时撤销已写入的修改
+	 */
+	@Test
+	void rejectedApplyRollsBackEarlierParticipants() {
+		ModEnergyStorage first = new ModEnergyStorage(1000, 1000, 1000, 500);
+		ModEnergyStorage rejecting = new ModEnergyStorage(1000, 1000, 1000, 500) {
+			@Override
+			public boolean applyEnergyDelta(long delta) {
+				return false;
+			}
+		};
+		try (EnergyTransaction transaction = EnergyTransaction.open()) {
+			first.extractEnergy(100, transaction);
+			rejecting.receiveEnergy(100, transaction);
+			assertFalse(transaction.commit());
+		}
+		assertEquals(500, first.getEnergyStored());
+		assertEquals(500, rejecting.getEnergyStored());
+	}
+
+	private static ModComponentEnergyStorage componentStorage(StubComponentHolder holder, int energy) {
+		holder.set(StubComponentHolder.ENERGY_STORAGE, new EnergyStorageData(1000, 1000, 1000, energy));
+		return new ModComponentEnergyStorage(holder, StubComponentHolder.ENERGY_STORAGE);
+	}
+
+	/**
+	 * 记录事务写入次数的能量存储，每次最多接收 200
+	 */
+	private static final class CountingEnergyStorage extends ModEnergyStorage {
+		private int applied;
+
+		private CountingEnergyStorage(int capacity) {
+			super(capacity, 200, 200);
+		}
+
+		/**
+		 * 写入事务提交的能量变化并计数
+		 *
+		 * @param delta 能量变化
+		 * @return 是否写入
+		 */
+		@Override
+		public boolean applyEnergyDelta(long delta) {
+			applied++;
+			return super.applyEnergyDelta(delta);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package ctn.ctnapi.common.data_compoent;
+
+import com.mojang.serialization.JsonOps;
+import ctn.ctnapi.common.data_compoent.ModComponentEnergyStorage.EnergyStorageData;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * 组件能量存储版本号测试
+ */
+class ModComponentEnergyStorageTest {
+	/**
+	 * 没有修改时复制与编解码后版本号不变
+	 */
+	@Test
+	void versionSurvivesCopyAndDecode() {
+		StubComponentHolder holder = new StubComponentHolder();
+		ModComponentEnergyStorage storage = storage(holder);
+		storage.receiveEnergy(100, false);
+		EnergyStorageData data = storage.getEnergyStorageData();
+		long version = storage.version();
+
+		StubComponentHolder copy = new StubComponentHolder();
+		copy.applyComponents(holder.getComponents());
+		assertEquals(version, new ModComponentEnergyStorage(copy, StubComponentHolder.ENERGY_STORAGE).version());
+
+		EnergyStorageData decoded = EnergyStorageData.CODEC.parse(JsonOps.INSTANCE,
+				EnergyStorageData.CODEC.encodeStart(JsonOps.INSTANCE, data).getOrThrow()).getOrThrow();
+		assertEquals(data, decoded);
+		assertEquals(version, decoded.version());
+
+		ByteBuf buffer = Unpooled.buffer();
+		EnergyStorageData.STREAM.encode(buffer, data);
+		EnergyStorageData synced = EnergyStorageData.STREAM.decode(buffer);
+		assertEquals(data, synced);
+		assertEquals(data.hashCode(), synced.hashCode());
+		assertEquals(version, synced.version());
+	}
+
+	/**
+	 * 只有真正的修改才改变版本号
+	 */
+	@Test
+	void versionChangesOnlyOnMutation() {
+		StubComponentHolder holder = new StubComponentHolder();
+		ModComponentEnergyStorage storage = storage(holder);
+		long version = storage.version();
+
+		storage.setEnergy(storage.getEnergyStored());
+		storage.setMaxReceive(storage.getMaxReceive());
+		storage.extractEnergy(100, true);
+		assertEquals(version, storage.version());
+
+		storage.extractEnergy(100, false);
+		assertNotEquals(version, storage.version());
+		version = storage.version();
+		assertEquals(version + 1, storage.getEnergyStorageData().setMaxExtract(10).version());
+	}
+
+	private static ModComponentEnergyStorage storage(StubComponentHolder holder) {
+		holder.set(StubComponentHolder.ENERGY_STORAGE, new EnergyStorageData(1000, 1000, 1000, 500));
+		return new ModComponentEnergyStorage(holder, StubComponentHolder.ENERGY_STORAGE);
+	}
+}
@@ -0,0 +1,94 @@
+package ctn.ctnapi.common.data_compoent;
+
+import net.minecraft.core.component.DataComponentMap;
+import net.minecraft.core.component.DataComponentPatch;
+import net.minecraft.core.component.DataComponentType;
+import net.minecraft.core.component.PatchedDataComponentMap;
+import net.neoforged.neoforge.common.MutableDataComponentHolder;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 测试用的可变数据组件持有者
+ * 与物品堆一样以 {@link PatchedDataComponentMap} 保存组件，但不需要注册物品，并记录写入次数
+ */
+public class StubComponentHolder implements MutableDataComponentHolder {
+	/**
+	 * 测试用的能量数据组件类型
+	 */
+	public static final DataComponentType<ModComponentEnergyStorage.EnergyStorageData> ENERGY_STORAGE =
+			DataComponentType.<ModComponentEnergyStorage.EnergyStorageData>builder()
+					.persistent(ModComponentEnergyStorage.EnergyStorageData.CODEC)
+					.networkSynchronized(ModComponentEnergyStorage.EnergyStorageData.STREAM)
+					.build();
+
+	private final PatchedDataComponentMap components = new PatchedDataComponentMap(DataComponentMap.EMPTY);
+	private int writes;
+
+	/**
+	 * 获取写入次数
+	 *
+	 * @return 写入次数
+	 */
+	public int getWrites() {
+		return writes;
+	}
+
+	/**
+	 * 获取数据组件
+	 *
+	 * @return 数据组件
+	 */
+	@Override
+	public DataComponentMap getComponents() {
+		return components;
+	}
+
+	/**
+	 * 设置数据组件
+	 *
+	 * @param componentType 数据组件类型
+	 * @param value         值
+	 * @return 之前的值
+	 */
+	@Nullable
+	@Override
+	public <T> T set(DataComponentType<? super T> componentType, @Nullable T value) {
+		writes++;
+		return components.set(componentType, value);
+	}
+
+	/**
+	 * 移除数据组件
+	 *
+	 * @param componentType 数据组件类型
+	 * @return 之前的值
+	 */
+	@Nullable
+	@Override
+	public <T> T remove(DataComponentType<? extends T> componentType) {
+		writes++;
+		return components.remove(componentType);
+	}
+
+	/**
+	 * 应用数据组件补丁
+	 *
+	 * @param patch 数据组件补丁
+	 */
+	@Override
+	public void applyComponents(DataComponentPatch patch) {
+		writes++;
+		components.applyPatch(patch);
+	}
+
+	/**
+	 * 应用数据组件
+	 *
+	 * @param components 数据组件
+	 */
+	@Override
+	public void applyComponents(DataComponentMap components) {
+		writes++;
+		this.components.setAll(components);
+	}
+}
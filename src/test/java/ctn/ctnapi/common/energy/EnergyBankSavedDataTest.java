@@ -0,0 +1,79 @@
+package ctn.ctnapi.common.energy;
+
+import ctn.ctnapi.adapter.AtomicModEnergyStorage;
+import ctn.ctnapi.adapter.EnergyBankStorage;
+import ctn.ctnapi.capability.EnergyTransaction;
+import ctn.ctnapi.util.EnergyUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 能量银行并发测试
+ */
+class EnergyBankSavedDataTest {
+	private static final int THREADS = 4;
+	private static final int DEPOSITS = 200_000;
+	private static final int CAPACITY = 1_000_000_000;
+	private static final int INITIAL = 500_000;
+
+	/**
+	 * 工作线程存入能量的同时服务端线程在两个银行之间传输，总能量应守恒
+	 */
+	@Test
+	void controlEnergyConservesConcurrentDeposits() throws InterruptedException {
+		EnergyBankSavedData data = new EnergyBankSavedData();
+		UUID idA = EnergyBankSavedData.nameToId("a");
+		UUID idB = EnergyBankSavedData.nameToId("b");
+		AtomicModEnergyStorage bankA = data.getOrCreate(idA, CAPACITY, 1000, 1000);
+		AtomicModEnergyStorage bankB = data.getOrCreate(idB, CAPACITY, 1000, 1000);
+		bankA.setEnergy(INITIAL);
+		EnergyBankStorage storageA = data.bind(idA);
+		EnergyBankStorage storageB = data.bind(idB);
+		assertTrue(EnergyTransaction.isTransactional(storageA));
+		assertTrue(EnergyTransaction.isTransactional(bankA));
+
+		AtomicLong deposited = new AtomicLong();
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			AtomicModEnergyStorage target = t % 2 == 0 ? bankA : bankB;
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					long sum = 0;
+					for (int i = 0; i < DEPOSITS; i++) {
+						sum += target.receiveEnergy(1, false);
+					}
+					deposited.addAndGet(sum);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					done.countDown();
+				}
+			});
+			thread.start();
+		}
+
+		start.countDown();
+		boolean forward = true;
+		while (done.getCount() > 0) {
+			if (forward) {
+				EnergyUtil.controlEnergy(storageA, storageB);
+			} else {
+				EnergyUtil.controlEnergy(storageB, storageA);
+			}
+			forward = !forward;
+		}
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+
+		assertEquals(THREADS * (long) DEPOSITS, deposited.get());
+		assertEquals(INITIAL + deposited.get(), (long) bankA.getEnergyStored() + bankB.getEnergyStored());
+	}
+}
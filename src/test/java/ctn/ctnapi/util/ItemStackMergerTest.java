@@ -0,0 +1,80 @@
+package ctn.ctnapi.util;
+
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 物品堆栈合并器测试
+ */
+class ItemStackMergerTest {
+	/**
+	 * 按物品分组，输出按第一次加入的顺序
+	 */
+	@Test
+	void groupsByItemInInsertionOrder() {
+		ItemStackMerger merger = new ItemStackMerger();
+		merger.addAll(new ItemStack(Items.STONE, 10), new ItemStack(Items.DIRT, 5),
+				ItemStack.EMPTY, new ItemStack(Items.STONE, 20));
+
+		assertEquals(2, merger.size());
+		assertSame(Items.STONE, merger.getTemplate(0).getItem());
+		assertEquals(30, merger.getCount(0));
+		assertSame(Items.DIRT, merger.getTemplate(1).getItem());
+		assertEquals(5, merger.getCount(1));
+	}
+
+	/**
+	 * 数据组件不同的物品分别合并
+	 */
+	@Test
+	void groupsByComponents() {
+		ItemStack named = new ItemStack(Items.STONE, 3);
+		named.set(DataComponents.CUSTOM_NAME, Component.literal("a"));
+		ItemStack sameName = named.copyWithCount(4);
+		ItemStack otherName = new ItemStack(Items.STONE, 5);
+		otherName.set(DataComponents.CUSTOM_NAME, Component.literal("b"));
+
+		ItemStackMerger merger = new ItemStackMerger();
+		merger.addAll(new ItemStack(Items.STONE, 1), named, otherName, sameName);
+
+		assertEquals(3, merger.size());
+		assertEquals(1, merger.getCount(0));
+		assertEquals(7, merger.getCount(1));
+		assertEquals(Component.literal("a"), merger.getTemplate(1).get(DataComponents.CUSTOM_NAME));
+		assertEquals(5, merger.getCount(2));
+	}
+
+	/**
+	 * 输出时按最大堆叠数拆分，之后修改传入的物品堆栈不影响结果
+	 */
+	@Test
+	void splitsByMaxStackSize() {
+		ItemStack stone = new ItemStack(Items.STONE, 64);
+		ItemStackMerger merger = new ItemStackMerger();
+		merger.add(stone);
+		merger.add(stone, 66);
+		merger.add(new ItemStack(Items.ENDER_PEARL, 20));
+		stone.setCount(1);
+
+		List<ItemStack> stacks = merger.toItemStacks();
+		assertEquals(5, stacks.size());
+		assertEquals(64, stacks.get(0).getCount());
+		assertEquals(64, stacks.get(1).getCount());
+		assertEquals(2, stacks.get(2).getCount());
+		assertEquals(16, stacks.get(3).getCount());
+		assertEquals(4, stacks.get(4).getCount());
+
+		merger.clear();
+		assertTrue(merger.isEmpty());
+		assertTrue(merger.toItemStacks().isEmpty());
+	}
+}